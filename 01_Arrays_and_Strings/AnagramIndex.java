@@ -0,0 +1,159 @@
+import java.util.*;
+
+/**
+ * Index that groups words into anagram classes
+ * Every word is keyed by Anagrams.signature(), a 64-bit hash of its
+ * code-point multiset, in an open-addressing table of primitive longs (no
+ * boxing, no per-word map entries). A slot also remembers the first word of
+ * its group, and a match needs both the signature and Anagrams.isAnagram()
+ * against that word, so two non-anagrams that happen to share a signature
+ * still end up in different groups. Words of a group are chained through an
+ * int[] (intrusive singly linked list), newest first.
+ *
+ * Time Complexity: O(length of the word) per add / lookup, independent of the index size
+ * Space Complexity: O(words + groups)
+ */
+public class AnagramIndex {
+    private static final double MAX_LOAD = 0.5;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    // table: signature and group id per slot, group -1 = empty
+    private long[] signatures;
+    private int[] slotGroup;
+    private int mask;
+
+    // groups: first word and head of the word chain
+    private int[] groupFirst = new int[16];
+    private int[] groupHead = new int[16];
+    private int[] groupSize = new int[16];
+    private int groups;
+
+    // words, chained per group
+    private final ArrayList<String> words = new ArrayList<>();
+    private int[] nextWord = new int[16];
+
+    public AnagramIndex() {
+        this(16);
+    }
+
+    public AnagramIndex(int expectedGroups) {
+        if (expectedGroups > MAX_CAPACITY * MAX_LOAD) {
+            throw new IllegalArgumentException("expectedGroups too large: " + expectedGroups);
+        }
+        int capacity = 16;
+        while (capacity * MAX_LOAD < expectedGroups) capacity <<= 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        signatures = new long[capacity];
+        slotGroup = new int[capacity];
+        Arrays.fill(slotGroup, -1);
+        mask = capacity - 1;
+    }
+
+    private int slotOf(long signature) {
+        return (int) (signature >>> 32 ^ signature) & mask;
+    }
+
+    // slot of word's group, or of the empty slot where it would go (as -slot - 1)
+    private int find(String word, long signature) {
+        int i = slotOf(signature);
+        while (true) {
+            int g = slotGroup[i];
+            if (g < 0) return -i - 1;
+            if (signatures[i] == signature && Anagrams.isAnagram(words.get(groupFirst[g]), word)) return i;
+            i = (i + 1) & mask;
+        }
+    }
+
+    // adds the word and returns its group id (ids are dense, 0 .. groupCount()-1)
+    public int add(String word) {
+        long signature = Anagrams.signature(word);
+        int w = words.size();
+        words.add(word);
+        if (w == nextWord.length) nextWord = Arrays.copyOf(nextWord, w * 2);
+        int slot = find(word, signature);
+        int g;
+        if (slot >= 0) {
+            g = slotGroup[slot];
+        } else {
+            if (groups >= (mask + 1) * MAX_LOAD && mask + 1 == MAX_CAPACITY) {
+                throw new IllegalStateException("AnagramIndex is full: " + groups + " groups");
+            }
+            g = groups++;
+            if (g == groupFirst.length) {
+                groupFirst = Arrays.copyOf(groupFirst, g * 2);
+                groupHead = Arrays.copyOf(groupHead, g * 2);
+                groupSize = Arrays.copyOf(groupSize, g * 2);
+            }
+            groupFirst[g] = w;
+            groupHead[g] = -1;
+            slot = -slot - 1;
+            signatures[slot] = signature;
+            slotGroup[slot] = g;
+            if (groups > (mask + 1) * MAX_LOAD) rehash();
+        }
+        nextWord[w] = groupHead[g];
+        groupHead[g] = w;
+        groupSize[g]++;
+        return g;
+    }
+
+    private void rehash() {
+        long[] oldSignatures = signatures;
+        int[] oldGroups = slotGroup;
+        allocate(oldSignatures.length * 2);
+        for (int i = 0; i < oldGroups.length; i++) {
+            if (oldGroups[i] >= 0) {
+                int j = slotOf(oldSignatures[i]);
+                while (slotGroup[j] >= 0) j = (j + 1) & mask;
+                signatures[j] = oldSignatures[i];
+                slotGroup[j] = oldGroups[i];
+            }
+        }
+    }
+
+    // group id of the anagram class of word, or -1 if no anagram of it was added
+    public int groupOf(String word) {
+        int slot = find(word, Anagrams.signature(word));
+        return slot < 0 ? -1 : slotGroup[slot];
+    }
+
+    // all added words that are anagrams of word (word itself included if it was added)
+    public List<String> anagramsOf(String word) {
+        int g = groupOf(word);
+        return g < 0 ? Collections.emptyList() : group(g);
+    }
+
+    public List<String> group(int g) {
+        ArrayList<String> result = new ArrayList<>(groupSize[g]);
+        for (int w = groupHead[g]; w >= 0; w = nextWord[w]) result.add(words.get(w));
+        return result;
+    }
+
+    public int groupSize(int g) {
+        return groupSize[g];
+    }
+
+    public int groupCount() {
+        return groups;
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    public static void main(String[] args) {
+        AnagramIndex index = new AnagramIndex();
+        for (String word : "listen silent enlist tinsel google inlets banana 😀ab b😀a crème mèrec".split(" ")) {
+            index.add(word);
+        }
+        System.out.println(index.size() + " words in " + index.groupCount() + " groups");
+        for (int g = 0; g < index.groupCount(); g++) {
+            System.out.println("group " + g + ": " + index.group(g));
+        }
+        System.out.println("anagrams of 'tlisen': " + index.anagramsOf("tlisen"));
+        System.out.println("anagrams of 'apple': " + index.anagramsOf("apple"));
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Unicode-correct anagram checks and multiset signatures
+ * Two strings are anagrams when they hold the same multiset of code points
+ * (surrogate pairs count as one character, case and accents are significant;
+ * normalize first, e.g. with java.text.Normalizer, if U+00E9 and "e" + U+0301 should match).
+ *
+ * - Latin-1 fast path (every char < 256, the common case for dictionary words):
+ *   a 256-entry count table, +1 for the first string and -1 for the second;
+ *   short strings only re-check the entries they touched, long ones scan the
+ *   table with a reduction loop that C2 vectorizes
+ * - Anything else: code-point counts in an IntIntMap
+ * - signature(): order-independent 64-bit hash of the code-point multiset
+ *   (sum of per-code-point mixes), equal for all anagrams; AnagramIndex groups by it
+ *
+ * Time Complexity: O(n) per check or signature
+ * Space Complexity: O(1) for Latin-1, O(distinct code points) otherwise
+ */
+public final class Anagrams {
+    private static final long[] LATIN1_MIX = new long[256];
+    static {
+        for (int c = 0; c < 256; c++) LATIN1_MIX[c] = mix(c);
+    }
+
+    private Anagrams() {
+    }
+
+    // murmur3 fmix64 of a code point; a zero input would mix to 0, so offset it
+    private static long mix(long x) {
+        x += 0x9E3779B97F4A7C15L;
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB9FE1A85EC53L;
+        return x ^ (x >>> 33);
+    }
+
+    static boolean isLatin1(CharSequence s) {
+        int any = 0;
+        for (int i = 0; i < s.length(); i++) any |= s.charAt(i);
+        return any < 256;
+    }
+
+    public static boolean isAnagram(CharSequence a, CharSequence b) {
+        if (a.length() != b.length()) return false; // same code points => same UTF-16 length
+        if (isLatin1(a) && isLatin1(b)) {
+            int[] count = new int[256];
+            int n = a.length();
+            for (int i = 0; i < n; i++) {
+                count[a.charAt(i)]++;
+                count[b.charAt(i)]--;
+            }
+            return balanced(count, a);
+        }
+        IntIntMap count = new IntIntMap();
+        for (int i = 0; i < a.length(); ) {
+            int cp = Character.codePointAt(a, i);
+            count.put(cp, count.getOrDefault(cp, 0) + 1);
+            i += Character.charCount(cp);
+        }
+        for (int i = 0; i < b.length(); ) {
+            int cp = Character.codePointAt(b, i);
+            int left = count.getOrDefault(cp, 0);
+            if (left == 0) return false;
+            count.put(cp, left - 1);
+            i += Character.charCount(cp);
+        }
+        return true; // equal lengths and nothing went negative: every count is back to 0
+    }
+
+    // raw bytes (e.g. UTF-8 or Latin-1 encoded words): anagrams of the byte multiset
+    public static boolean isAnagram(byte[] a, byte[] b) {
+        if (a.length != b.length) return false;
+        int[] count = new int[256];
+        for (int i = 0; i < a.length; i++) {
+            count[a[i] & 0xFF]++;
+            count[b[i] & 0xFF]--;
+        }
+        int nonZero = 0;
+        for (int c : count) nonZero |= c;
+        return nonZero == 0;
+    }
+
+    // every entry back to 0? Short inputs touched at most n entries, all of them chars of a or b
+    private static boolean balanced(int[] count, CharSequence a) {
+        if (a.length() < 64) {
+            for (int i = 0; i < a.length(); i++) if (count[a.charAt(i)] != 0) return false;
+            return true; // chars only in b can only be negative, and all entries sum to 0
+        }
+        int nonZero = 0;
+        for (int c : count) nonZero |= c;
+        return nonZero == 0;
+    }
+
+    public static long signature(CharSequence s) {
+        long sum = 0;
+        if (isLatin1(s)) {
+            for (int i = 0; i < s.length(); i++) sum += LATIN1_MIX[s.charAt(i)];
+        } else {
+            for (int i = 0; i < s.length(); ) {
+                int cp = Character.codePointAt(s, i);
+                sum += cp < 256 ? LATIN1_MIX[cp] : mix(cp);
+                i += Character.charCount(cp);
+            }
+        }
+        return mix(sum); // a final mix so signatures of small multisets spread over all 64 bits
+    }
+
+    public static void main(String[] args) {
+        String[][] pairs = {
+                {"listen", "silent"}, {"Listen", "silent"}, {"crème", "mèrec"},
+                {"😀ab", "b😀a"}, {"😀", "😁"}, {"aabb", "abbb"}};
+        for (String[] p : pairs) {
+            System.out.println(p[0] + " vs " + p[1] + ": " + isAnagram(p[0], p[1])
+                    + ", same signature: " + (signature(p[0]) == signature(p[1])));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Bulk atoi over delimited ASCII fields in a byte[] / ByteBuffer
+ * Every field (the bytes between two delimiters) is parsed exactly like
+ * StringOperations.stringToIntegerBest parses a String: leading whitespace
+ * skipped, optional sign, digits up to the first non-digit (the rest of the
+ * field is ignored), saturating at the bounds of int (or long) instead of
+ * overflowing; an empty field is 0, and a delimiter at the very end (e.g. the
+ * last newline) does not start another field.
+ * Results go into a caller-supplied int[] / long[], and optionally the end of
+ * every field (the index of its delimiter, or of the end of the input) into
+ * an int[], so a caller can map values back to the input or resume after a
+ * full output array.
+ *
+ * SWAR digits: 8 bytes are loaded as one little-endian long; one add/or/and
+ * marks the bytes that are not digits, numberOfTrailingZeros counts the
+ * leading digits, and three multiply-shift steps turn up to 8 of them into
+ * their value (Lemire, "Faster parsing of integers"), instead of one
+ * multiply-add per byte. Inputs shorter than 8 bytes fall back to a byte loop.
+ *
+ * Time Complexity: O(n) bytes, about n / 8 steps for the digits
+ * Space Complexity: O(1) besides the caller's arrays
+ */
+public class BulkIntParser {
+    private static final VarHandle LONG_LE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ZEROS = 0x3030303030303030L; // '0' in every byte
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+    private static final long DIGIT_LIMIT = 0x7676767676767676L; // 0x80 - 10: carries into bit 7 for bytes >= 10
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long SAFE = 90_000_000_000L; // |acc| below this: acc * 10^8 cannot overflow a long
+    private static final long[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    private final byte delimiter;
+    private int cursor; // end of the field parsed last
+
+    public BulkIntParser(char delimiter) {
+        if (delimiter > 127 || delimiter >= '0' && delimiter <= '9' || delimiter == '+' || delimiter == '-') {
+            throw new IllegalArgumentException("delimiter must be ASCII and not part of a number: " + delimiter);
+        }
+        this.delimiter = (byte) delimiter;
+    }
+
+    // fields of in[from, to) into out; returns how many (stops early when out is full)
+    public int parseInts(byte[] in, int from, int to, int[] out, int[] ends) {
+        return parseInts(ByteBuffer.wrap(in, from, to - from), out, ends);
+    }
+
+    public int parseLongs(byte[] in, int from, int to, long[] out, int[] ends) {
+        return parseLongs(ByteBuffer.wrap(in, from, to - from), out, ends);
+    }
+
+    // fields between position and limit; ends are buffer indices, position moves past the fields parsed
+    public int parseInts(ByteBuffer in, int[] out, int[] ends) {
+        int pos = in.position(), limit = in.limit(), n = 0;
+        while (n < out.length && pos < limit) {
+            out[n] = (int) field(in, pos, limit, Integer.MAX_VALUE);
+            if (ends != null) ends[n] = cursor;
+            n++;
+            pos = cursor + 1; // past the delimiter
+        }
+        in.position(Math.min(pos, limit));
+        return n;
+    }
+
+    public int parseLongs(ByteBuffer in, long[] out, int[] ends) {
+        int pos = in.position(), limit = in.limit(), n = 0;
+        while (n < out.length && pos < limit) {
+            out[n] = field(in, pos, limit, Long.MAX_VALUE);
+            if (ends != null) ends[n] = cursor;
+            n++;
+            pos = cursor + 1;
+        }
+        in.position(Math.min(pos, limit));
+        return n;
+    }
+
+    // one field starting at pos, saturated to [-bound - 1, bound]; leaves cursor at its end
+    private long field(ByteBuffer in, int pos, int limit, long bound) {
+        byte delimiter = this.delimiter;
+        int b = 0;
+        while (pos < limit && (b = in.get(pos) & 0xFF) <= ' ' && b != delimiter) pos++;
+        boolean isNegative = false;
+        if (pos < limit && (b == '-' || b == '+')) {
+            isNegative = b == '-';
+            pos++;
+        }
+        // accumulate negatively, as -bound - 1 has no positive counterpart
+        long min = isNegative ? -bound - 1 : -bound;
+        long acc = 0;
+        boolean saturated = false;
+        int k = 8;
+        while (k == 8 && pos + 8 <= limit) {
+            long d = (long) LONG_LE.get(in, pos) ^ ZEROS; // digit bytes are now 0..9
+            long nonDigit = (((d & LOW7) + DIGIT_LIMIT) | d) & HIGH_BITS;
+            k = Long.numberOfTrailingZeros(nonDigit) >>> 3; // leading digits, 0..8
+            if (k == 0) break;
+            long chunk = digits(d << (64 - 8 * k)); // the k digits, moved up behind leading zeros
+            // past SAFE (long fields only), check acc * 10^k - chunk < min without overflowing
+            if (acc < -SAFE && acc < (min + chunk) / POW10[k]) {
+                saturated = true;
+                break;
+            }
+            acc = acc * POW10[k] - chunk;
+            pos += k;
+            if (acc < min) {
+                saturated = true;
+                break;
+            }
+        }
+        if (!saturated && k == 8) { // fewer than 8 bytes left
+            while (pos < limit && (b = in.get(pos) - '0') >= 0 && b <= 9) {
+                if (acc < -SAFE && acc < (min + b) / 10) {
+                    saturated = true;
+                    break;
+                }
+                acc = acc * 10 - b;
+                pos++;
+                if (acc < min) {
+                    saturated = true;
+                    break;
+                }
+            }
+        }
+        while (pos < limit && in.get(pos) != delimiter) pos++; // rest of the field (and of a saturated number)
+        cursor = pos;
+        if (saturated) return isNegative ? -bound - 1 : bound;
+        return isNegative ? acc : -acc;
+    }
+
+    // value of 8 digit bytes (0..9, first digit in the lowest byte)
+    private static long digits(long v) {
+        v = (v * 10 + (v >>> 8)) & 0x00FF00FF00FF00FFL; // pairs
+        v = (v * 100 + (v >>> 16)) & 0x0000FFFF0000FFFFL; // groups of 4
+        return (v * 10000 + (v >>> 32)) & 0xFFFFFFFFL;
+    }
+
+    public static void main(String[] args) {
+        byte[] csv = "42,-17,   +8,2147483648,-99999999999,12abc,,007,-2147483648,".getBytes(StandardCharsets.US_ASCII);
+        BulkIntParser parser = new BulkIntParser(',');
+        int[] values = new int[16], ends = new int[16];
+        int n = parser.parseInts(csv, 0, csv.length, values, ends);
+        System.out.println("Input:  " + new String(csv, StandardCharsets.US_ASCII));
+        System.out.println("Values: " + Arrays.toString(Arrays.copyOf(values, n)));
+        System.out.println("Ends:   " + Arrays.toString(Arrays.copyOf(ends, n)));
+        long[] longs = new long[4];
+        byte[] lines = "9223372036854775807\n-9223372036854775809\n 1234567890123\n".getBytes(StandardCharsets.US_ASCII);
+        n = new BulkIntParser('\n').parseLongs(lines, 0, lines.length, longs, null);
+        System.out.println("Longs:  " + Arrays.toString(Arrays.copyOf(longs, n)));
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Count-Min Sketch frequency counter (Cormode & Muthukrishnan 2005)
+ * depth rows of width counters; an element increments one counter per row and
+ * its frequency is estimated as the smallest of those counters. Collisions can
+ * only add to a counter, so the estimate never undercounts:
+ *     true count <= estimate <= true count + epsilon * total (with probability 1 - delta)
+ * for width = ceil(e / epsilon) and depth = ceil(ln(1 / delta)).
+ *
+ * Sketches of the same shape merge by adding their counters, which gives the
+ * sketch of the concatenated streams.
+ *
+ * Time Complexity: O(depth) per add/estimate, O(width * depth) per merge
+ * Space Complexity: width * depth longs, independent of the number of distinct elements
+ */
+public class CountMinSketch implements java.io.Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int width;
+    private final int depth;
+    private final long[] counters; // row after row
+    private long total;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1 || (long) width * depth > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("bad shape " + width + " x " + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        counters = new long[width * depth];
+    }
+
+    // overcount at most epsilon * total, with probability 1 - delta
+    public CountMinSketch(double epsilon, double delta) {
+        this((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    // row i uses h1 + i * h2 (Kirsch-Mitzenmacher), mapped to [0, width) with a multiply-shift
+    private int column(long hash, int row) {
+        long h = (hash >>> 32) + row * (hash & 0xFFFFFFFFL | 1);
+        return (int) (((h & 0xFFFFFFFFL) * width) >>> 32);
+    }
+
+    // adds count occurrences and returns the new estimate
+    public long addHash(long hash, long count) {
+        total += count;
+        long min = Long.MAX_VALUE;
+        for (int row = 0, base = 0; row < depth; row++, base += width) {
+            int i = base + column(hash, row);
+            counters[i] += count;
+            min = Math.min(min, counters[i]);
+        }
+        return min;
+    }
+
+    public long estimateHash(long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0, base = 0; row < depth; row++, base += width) {
+            min = Math.min(min, counters[base + column(hash, row)]);
+        }
+        return min;
+    }
+
+    public long add(int value) {
+        return addHash(HyperLogLog.mix(value), 1);
+    }
+
+    public long add(long value) {
+        return addHash(HyperLogLog.mix(value), 1);
+    }
+
+    public long add(CharSequence value) {
+        return addHash(HyperLogLog.hash(value), 1);
+    }
+
+    public long estimate(int value) {
+        return estimateHash(HyperLogLog.mix(value));
+    }
+
+    public long estimate(long value) {
+        return estimateHash(HyperLogLog.mix(value));
+    }
+
+    public long estimate(CharSequence value) {
+        return estimateHash(HyperLogLog.hash(value));
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("cannot merge " + other.width + " x " + other.depth
+                    + " into " + width + " x " + depth);
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    // sum of all counts added so far (the stream length)
+    public long total() {
+        return total;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public static void main(String[] args) {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.01); // 2719 x 5 counters, ~106 KB
+        for (int i = 0; i < 1_000_000; i++) sketch.add(i % 1000 == 0 ? 7 : i); // 7 is heavy
+        System.out.println(sketch.width() + " x " + sketch.depth() + " counters, total = " + sketch.total());
+        System.out.println("count(7) ~ " + sketch.estimate(7) + " (exact 1001)");
+        System.out.println("count(8) ~ " + sketch.estimate(8) + " (exact 1, bound +" + Math.round(0.001 * sketch.total()) + ")");
+        System.out.println("count(-1) ~ " + sketch.estimate(-1) + " (exact 0)");
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.*;
+
+/**
+ * Adaptive duplicate detection for int[]
+ * Looks at a strided sample of SAMPLE_SIZE elements first, then picks the
+ * cheapest exact strategy for the whole array:
+ * - SAMPLE:     the sample already holds a duplicate (or is the whole array)
+ * - PIGEONHOLE: more elements than values in [min, max]
+ * - BITSET:     dense range (range <= 32 * n): one bit per possible value in a long[],
+ *               at most as large as the array itself
+ * - RADIX:      large sparse input: scatter the values into buckets by their high
+ *               bits (relative to the sampled range), then check each bucket with a
+ *               small cache-resident hash table; equal values always share a bucket
+ * - HASH:       everything else, one IntSet (same as containsDuplicateBest)
+ * detect() returns the answer together with the strategy and the numbers it was
+ * chosen from, so the thresholds can be tuned on real data.
+ *
+ * Time Complexity: O(n) expected for every strategy
+ * Space Complexity: BITSET range / 8 bytes, RADIX and HASH O(n)
+ */
+public class DuplicateDetector {
+    public static final int SAMPLE_SIZE = 1024;
+    public static final int BITSET_BITS_PER_ELEMENT = 32; // bitset no larger than the int[] itself
+    public static final int RADIX_MIN_LENGTH = 1 << 18; // below this an IntSet stays in cache anyway
+    public static final int RADIX_BUCKET_SIZE = 1 << 14; // target elements per bucket
+
+    public enum Strategy { SAMPLE, PIGEONHOLE, BITSET, RADIX, HASH }
+
+    public static final class Result {
+        public final boolean duplicate;
+        public final Strategy strategy;
+        public final int length;
+        public final int sampleMin, sampleMax; // range seen in the sample
+        public final long range; // max - min + 1 over the whole array, or -1 if it was not computed
+        public final long nanos;
+
+        Result(boolean duplicate, Strategy strategy, int length, int sampleMin, int sampleMax, long range, long nanos) {
+            this.duplicate = duplicate;
+            this.strategy = strategy;
+            this.length = length;
+            this.sampleMin = sampleMin;
+            this.sampleMax = sampleMax;
+            this.range = range;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("duplicate=%b strategy=%s n=%d sample=[%d, %d] range=%d time=%.3f ms",
+                    duplicate, strategy, length, sampleMin, sampleMax, range, nanos / 1e6);
+        }
+    }
+
+    private static final IntReductions REDUCTIONS = IntReductions.best();
+
+    public static Result detect(int[] arr) {
+        long start = System.nanoTime();
+        int n = arr.length;
+        int k = Math.min(n, SAMPLE_SIZE);
+        int[] sample = new int[k];
+        for (int i = 0; i < k; i++) sample[i] = arr[(int) ((long) i * n / k)]; // distinct indices
+        Arrays.sort(sample);
+        int sampleMin = k == 0 ? 0 : sample[0], sampleMax = k == 0 ? 0 : sample[k - 1];
+        boolean sampleDuplicate = false;
+        for (int i = 1; i < k && !sampleDuplicate; i++) sampleDuplicate = sample[i] == sample[i - 1];
+        if (sampleDuplicate || k == n) {
+            return new Result(sampleDuplicate, Strategy.SAMPLE, n, sampleMin, sampleMax, -1, System.nanoTime() - start);
+        }
+
+        // the sample suggests a dense range: confirm it with the exact min/max (two SIMD passes)
+        long sampleRange = (long) sampleMax - sampleMin + 1;
+        if (sampleRange <= (long) BITSET_BITS_PER_ELEMENT * n) {
+            int min = REDUCTIONS.min(arr), max = REDUCTIONS.max(arr);
+            long range = (long) max - min + 1;
+            if (n > range) {
+                return new Result(true, Strategy.PIGEONHOLE, n, sampleMin, sampleMax, range, System.nanoTime() - start);
+            }
+            if (range <= (long) BITSET_BITS_PER_ELEMENT * n) {
+                boolean duplicate = bitset(arr, min, range);
+                return new Result(duplicate, Strategy.BITSET, n, sampleMin, sampleMax, range, System.nanoTime() - start);
+            }
+        }
+        if (n >= RADIX_MIN_LENGTH) {
+            boolean duplicate = radix(arr, sampleMin, sampleMax);
+            return new Result(duplicate, Strategy.RADIX, n, sampleMin, sampleMax, -1, System.nanoTime() - start);
+        }
+        IntSet set = new IntSet(n);
+        boolean duplicate = false;
+        for (int num : arr) {
+            if (!set.add(num)) {
+                duplicate = true;
+                break;
+            }
+        }
+        return new Result(duplicate, Strategy.HASH, n, sampleMin, sampleMax, -1, System.nanoTime() - start);
+    }
+
+    private static boolean bitset(int[] arr, int min, long range) {
+        long[] bits = new long[(int) ((range + 63) >>> 6)];
+        for (int num : arr) {
+            long bit = (long) num - min;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits[word] & mask) != 0) return true;
+            bits[word] |= mask;
+        }
+        return false;
+    }
+
+    // buckets split [lo, hi] evenly; values outside it (the sample missed them) go to the end buckets
+    private static boolean radix(int[] arr, int lo, int hi) {
+        int n = arr.length;
+        int buckets = Integer.highestOneBit(Math.max(16, Math.min(1 << 16, n / RADIX_BUCKET_SIZE)));
+        long span = (long) hi - lo + 1;
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(span - 1) - Integer.numberOfTrailingZeros(buckets));
+        int last = buckets - 1;
+        int[] start = new int[buckets + 1];
+        for (int num : arr) start[bucketOf(num, lo, shift, last) + 1]++;
+        int largest = 0;
+        for (int b = 0; b < buckets; b++) {
+            largest = Math.max(largest, start[b + 1]);
+            start[b + 1] += start[b];
+        }
+        int[] grouped = new int[n];
+        int[] next = Arrays.copyOf(start, buckets);
+        for (int num : arr) grouped[next[bucketOf(num, lo, shift, last)]++] = num;
+
+        // one table for all buckets; stamping slots with the bucket number saves clearing it
+        int capacity = Integer.highestOneBit(Math.max(16, largest * 2 - 1)) << 1;
+        int mask = capacity - 1, hashShift = 32 - Integer.numberOfTrailingZeros(capacity);
+        int[] keys = new int[capacity];
+        int[] stamps = new int[capacity];
+        for (int b = 0; b < buckets; b++) {
+            int stamp = b + 1;
+            for (int i = start[b]; i < start[b + 1]; i++) {
+                int v = grouped[i];
+                int slot = (v * 0x9E3779B9) >>> hashShift;
+                while (stamps[slot] == stamp) {
+                    if (keys[slot] == v) return true;
+                    slot = (slot + 1) & mask;
+                }
+                stamps[slot] = stamp;
+                keys[slot] = v;
+            }
+        }
+        return false;
+    }
+
+    private static int bucketOf(int value, int lo, int shift, int last) {
+        long offset = (long) value - lo;
+        if (offset < 0) return 0;
+        return (int) Math.min(last, offset >>> shift);
+    }
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        int n = 1_000_000;
+        int[] dense = new int[n];
+        for (int i = 0; i < n; i++) dense[i] = 5_000_000 + i * 3;
+        int[] sparse = random.ints(n, 0, Integer.MAX_VALUE).distinct().toArray();
+        int[] repeated = {4, 8, 15, 16, 23, 42, 8};
+        int[] pigeon = new int[n];
+        for (int i = 0; i < n; i++) pigeon[i] = i % (n - 1); // n values in [0, n - 2]
+        System.out.println("small:  " + detect(repeated));
+        System.out.println("dense:  " + detect(dense));
+        System.out.println("sparse: " + detect(sparse));
+        System.out.println("pigeon: " + detect(pigeon));
+        System.out.println("hash:   " + detect(Arrays.copyOf(sparse, 100_000)));
+    }
+}
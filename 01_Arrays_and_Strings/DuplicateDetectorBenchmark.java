@@ -0,0 +1,61 @@
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * DuplicateDetector vs containsDuplicateBest on differently shaped inputs
+ * Every input is duplicate-free (the worst case: all elements are checked),
+ * so the difference is the cost of the chosen strategy. Prints the strategy,
+ * ms for both (best of at least 5 runs) and the speedup.
+ *
+ * Run:   javac *.java && javac --add-modules jdk.incubator.vector -cp . -d . Vector/VectorIntReductions.java
+ *        java --add-modules jdk.incubator.vector -Xmx4g DuplicateDetectorBenchmark [array length]   (default 10M)
+ */
+public class DuplicateDetectorBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 10_000_000;
+        Random random = new Random(42);
+        Map<String, Supplier<int[]>> inputs = new LinkedHashMap<>();
+        inputs.put("dense ids", () -> shuffle(sequence(n, 1_000_000, 1), random));
+        inputs.put("ids, step 20", () -> shuffle(sequence(n, 0, 20), random));
+        inputs.put("sparse 2^31", () -> shuffle(sequence(n, Integer.MIN_VALUE, (int) (0xFFFFFFFFL / n)), random));
+        inputs.put("small sparse", () -> shuffle(sequence(Math.min(n, 100_000), 0, 10_007), random));
+
+        ArrayOperations ops = new ArrayOperations();
+        System.out.printf("%-14s %-10s %10s %12s %8s%n", "input", "strategy", "hash(ms)", "adaptive(ms)", "speedup");
+        for (Map.Entry<String, Supplier<int[]>> e : inputs.entrySet()) {
+            int[] arr = e.getValue().get();
+            DuplicateDetector.Result result = DuplicateDetector.detect(arr);
+            if (result.duplicate != ops.containsDuplicateBest(arr)) throw new IllegalStateException(e.getKey() + ": wrong answer");
+            int runs = (int) Math.max(5, Math.min(1000, 200_000_000L / Math.max(1, arr.length))); // short inputs need more runs to warm up
+            double hash = best(() -> ops.containsDuplicateBest(arr), runs);
+            double adaptive = best(() -> DuplicateDetector.detect(arr), runs);
+            System.out.printf("%-14s %-10s %10.1f %12.1f %7.1fx%n", e.getKey(), result.strategy, hash, adaptive, hash / adaptive);
+        }
+    }
+
+    private static int[] sequence(int n, int first, int step) {
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) arr[i] = first + i * step;
+        return arr;
+    }
+
+    private static int[] shuffle(int[] arr, Random random) {
+        for (int i = arr.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = arr[i]; arr[i] = arr[j]; arr[j] = t;
+        }
+        return arr;
+    }
+
+    // milliseconds of the fastest run (the first runs double as JIT warm-up)
+    private static double best(Runnable task, int runs) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < runs; run++) {
+            long t = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        return best / 1e6;
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.*;
+
+/**
+ * First non-repeating token of a stream, kept up to date one token at a time
+ * Unlike firstNonRepeatingBest this never needs the whole input: tokens
+ * (chars, code points or any int ids) are fed with add() and firstUnique()
+ * answers at any moment. Per token id there is a count (capped at 2, which is
+ * all that matters) in a byte[], and the ids seen exactly once form a doubly
+ * linked list threaded through two int[] (prev / next), in order of arrival:
+ * - count 0 -> 1: append to the tail
+ * - count 1 -> 2: unlink (O(1), the neighbours are known)
+ * so the head of the list is always the answer.
+ *
+ * Ids: with an alphabet size (e.g. 65536 for chars) a token is its own id and
+ * the arrays are allocated up front; without one, tokens can be any int and get
+ * dense ids from an IntIntMap as they first appear (the arrays grow by doubling).
+ *
+ * Time Complexity: O(1) per add and per query
+ * Space Complexity: O(alphabet) or O(distinct tokens), independent of the stream length
+ */
+public class FirstUniqueTracker {
+    private static final int NIL = -1;
+
+    private IntIntMap ids; // token -> dense id, null when tokens are their own ids
+    private final int alphabet;
+    private int[] tokenOf; // dense id -> token (dense mode only)
+
+    private byte[] count;
+    private int[] prev, next;
+    private int head = NIL, tail = NIL;
+    private int distinct;
+    private long size;
+
+    // any int token
+    public FirstUniqueTracker() {
+        ids = new IntIntMap();
+        alphabet = -1;
+        tokenOf = new int[16];
+        allocate(16);
+    }
+
+    // tokens in [0, alphabet), e.g. 65536 for chars or Character.MAX_CODE_POINT + 1 for code points
+    public FirstUniqueTracker(int alphabet) {
+        if (alphabet < 1) throw new IllegalArgumentException("alphabet must be positive: " + alphabet);
+        ids = null;
+        this.alphabet = alphabet;
+        allocate(alphabet);
+    }
+
+    private void allocate(int capacity) {
+        count = count == null ? new byte[capacity] : Arrays.copyOf(count, capacity);
+        prev = prev == null ? new int[capacity] : Arrays.copyOf(prev, capacity);
+        next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+    }
+
+    private int idOf(int token) {
+        if (ids == null) {
+            if (token < 0 || token >= alphabet) {
+                throw new IllegalArgumentException("token " + token + " outside [0, " + alphabet + ")");
+            }
+            return token;
+        }
+        int id = ids.getOrDefault(token, NIL);
+        if (id == NIL) {
+            id = distinct;
+            ids.put(token, id);
+            if (id == count.length) {
+                allocate(id * 2);
+                tokenOf = Arrays.copyOf(tokenOf, id * 2);
+            }
+            tokenOf[id] = token;
+        }
+        return id;
+    }
+
+    public void add(int token) {
+        int id = idOf(token);
+        size++;
+        switch (count[id]) {
+            case 0 -> { // first time: append
+                count[id] = 1;
+                distinct++;
+                prev[id] = tail;
+                next[id] = NIL;
+                if (tail == NIL) head = id;
+                else next[tail] = id;
+                tail = id;
+            }
+            case 1 -> { // second time: unlink
+                count[id] = 2;
+                if (prev[id] == NIL) head = next[id];
+                else next[prev[id]] = next[id];
+                if (next[id] == NIL) tail = prev[id];
+                else prev[next[id]] = prev[id];
+            }
+            default -> { // already repeating
+            }
+        }
+    }
+
+    // adds every char of chars, in order
+    public void add(CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) add(chars.charAt(i));
+    }
+
+    public boolean hasUnique() {
+        return head != NIL;
+    }
+
+    // earliest token seen exactly once so far
+    public int firstUnique() {
+        if (head == NIL) throw new NoSuchElementException("every token so far repeats");
+        return ids == null ? head : tokenOf[head];
+    }
+
+    // the tokens seen exactly once, oldest first
+    public int[] uniques() {
+        int n = 0;
+        for (int id = head; id != NIL; id = next[id]) n++;
+        int[] result = new int[n];
+        int i = 0;
+        for (int id = head; id != NIL; id = next[id]) result[i++] = ids == null ? id : tokenOf[id];
+        return result;
+    }
+
+    public int distinct() {
+        return distinct;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // forget everything; O(alphabet) with an alphabet, O(distinct) otherwise
+    public void clear() {
+        Arrays.fill(count, 0, ids == null ? alphabet : distinct, (byte) 0);
+        if (ids != null) ids = new IntIntMap();
+        head = tail = NIL;
+        distinct = 0;
+        size = 0;
+    }
+
+    public static void main(String[] args) {
+        FirstUniqueTracker chars = new FirstUniqueTracker(Character.MAX_VALUE + 1);
+        String stream = "leetcodeloveleetcode";
+        StringBuilder answers = new StringBuilder();
+        for (int i = 0; i < stream.length(); i++) {
+            chars.add(stream.charAt(i));
+            answers.append(chars.hasUnique() ? (char) chars.firstUnique() : '-');
+        }
+        System.out.println("Stream:       " + stream);
+        System.out.println("First unique: " + answers);
+
+        FirstUniqueTracker events = new FirstUniqueTracker(); // e.g. user ids from a live feed
+        for (int userId : new int[]{1_000_042, -7, 1_000_042, 31_337, -7, 99}) events.add(userId);
+        System.out.println("First one-time user: " + events.firstUnique() + ", all: " + Arrays.toString(events.uniques()));
+    }
+}
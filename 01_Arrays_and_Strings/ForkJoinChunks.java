@@ -0,0 +1,63 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Chunked loops on a ForkJoinPool, shared by ParallelArrayOperations and ParallelTextOperations
+ * n elements are cut into chunks of at least `threshold` (at most 4 per worker,
+ * for load balancing); a RecursiveAction splits the chunk range in halves until
+ * one chunk is left and runs it. Inputs shorter than twice the threshold are a
+ * single chunk, run on the calling thread.
+ */
+final class ForkJoinChunks {
+    private final ForkJoinPool pool;
+    private final long threshold;
+
+    ForkJoinChunks(ForkJoinPool pool, long threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    // number of chunks for n elements; 1 means "run sequentially"
+    int chunks(long n) {
+        if (n < 2 * threshold) return 1;
+        return (int) Math.min(n / threshold, 4L * pool.getParallelism());
+    }
+
+    // first element of chunk; chunk == chunks gives n
+    static long start(int chunk, int chunks, long n) {
+        return n / chunks * chunk + n % chunks * chunk / chunks; // n * chunk / chunks without overflow
+    }
+
+    // runs body(chunk) for every chunk in [0, chunks), forking in halves
+    void forEach(int chunks, IntConsumer body) {
+        if (chunks == 1) {
+            body.accept(0);
+            return;
+        }
+        pool.invoke(new ChunkAction(0, chunks, body));
+    }
+
+    private static final class ChunkAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int lo, hi;
+        private final transient IntConsumer body; // never serialized: the task only runs inside invoke()
+
+        ChunkAction(int lo, int hi, IntConsumer body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.accept(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ChunkAction(lo, mid, body), new ChunkAction(mid, hi, body));
+        }
+    }
+}
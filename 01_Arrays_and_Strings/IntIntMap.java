@@ -0,0 +1,155 @@
+/**
+ * Primitive int -> int hash map (open addressing, linear probing)
+ * Replaces Map<Integer, Integer> on hot paths: keys and values live in one
+ * flat int[] (key, value, key, value, ...), so put/get never box and a lookup
+ * usually touches a single cache line.
+ *
+ * Key 0 marks an empty slot; a real 0 key is stored on the side
+ * (hasZeroKey / zeroValue) so every int can still be used as a key.
+ *
+ * Time Complexity: O(1) expected per operation
+ * Space Complexity: O(n)
+ */
+public class IntIntMap {
+    private static final int EMPTY = 0;
+    private static final double MAX_LOAD = 0.5;
+    private static final int MAX_CAPACITY = 1 << 29; // slots[] holds two ints per slot
+
+    private int[] slots; // [key0, value0, key1, value1, ...]
+    private int mask; // capacity - 1
+    private int shift; // 32 - log2(capacity), for Fibonacci hashing
+    private int threshold;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    public IntIntMap(int expectedSize) {
+        if (expectedSize > MAX_CAPACITY * MAX_LOAD) {
+            throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        }
+        int capacity = 16;
+        while (capacity * MAX_LOAD < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        slots = new int[capacity * 2];
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        threshold = (int) (capacity * MAX_LOAD);
+    }
+
+    // Fibonacci hashing: the top bits of key * 2^32/phi are well mixed
+    private int slotOf(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    public void put(int key, int value) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int i = slotOf(key);
+        while (true) {
+            int k = slots[i * 2];
+            if (k == EMPTY) {
+                if (size >= threshold && mask + 1 == MAX_CAPACITY) {
+                    throw new IllegalStateException("IntIntMap is full: " + size + " keys");
+                }
+                slots[i * 2] = key;
+                slots[i * 2 + 1] = value;
+                if (++size > threshold) {
+                    rehash();
+                }
+                return;
+            }
+            if (k == key) {
+                slots[i * 2 + 1] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    // value for key, or missing if the key is absent
+    public int getOrDefault(int key, int missing) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : missing;
+        }
+        int i = slotOf(key);
+        while (true) {
+            int k = slots[i * 2];
+            if (k == key) {
+                return slots[i * 2 + 1];
+            }
+            if (k == EMPTY) {
+                return missing;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        if (key == EMPTY) {
+            return hasZeroKey;
+        }
+        int i = slotOf(key);
+        while (true) {
+            int k = slots[i * 2];
+            if (k == key) {
+                return true;
+            }
+            if (k == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void rehash() {
+        int[] old = slots;
+        allocate((mask + 1) * 2);
+        for (int j = 0; j < old.length; j += 2) {
+            int key = old[j];
+            if (key != EMPTY) {
+                int i = slotOf(key);
+                while (slots[i * 2] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                slots[i * 2] = key;
+                slots[i * 2 + 1] = old[j + 1];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public static void main(String[] args) {
+        IntIntMap map = new IntIntMap();
+        map.put(7, 1);
+        map.put(0, 2);
+        map.put(-3, 3);
+        map.put(7, 4);
+        System.out.println("7 -> " + map.getOrDefault(7, -1));
+        System.out.println("0 -> " + map.getOrDefault(0, -1));
+        System.out.println("-3 -> " + map.getOrDefault(-3, -1));
+        System.out.println("42 -> " + map.getOrDefault(42, -1));
+        System.out.println("size = " + map.size());
+    }
+}
@@ -0,0 +1,75 @@
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * BulkIntParser vs Integer.parseInt on comma-separated ints
+ * Parses the same random fields (full int range, and small values up to 9999)
+ * three ways and prints the best time (ms) and millions of fields per second:
+ * - Integer.parseInt on Strings that already exist (the split has been paid for)
+ * - new String per field + Integer.parseInt (what a reader of raw bytes pays)
+ * - BulkIntParser straight from the bytes
+ * All three must produce the same values, otherwise the benchmark stops.
+ *
+ * Run:   javac *.java
+ *        java -Xmx4g IntParserBenchmark [fields]   (default 10M)
+ */
+public class IntParserBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 10_000_000;
+        Random random = new Random(42);
+        run("full range", random.ints(n).toArray());
+        run("0..9999", random.ints(n, 0, 10_000).toArray());
+    }
+
+    private static void run(String name, int[] values) {
+        int n = values.length;
+        String[] fields = new String[n];
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            fields[i] = Integer.toString(values[i]);
+            csv.append(fields[i]).append(',');
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.US_ASCII);
+        int[] out = new int[n], ends = new int[n];
+        BulkIntParser parser = new BulkIntParser(',');
+        int runs = (int) Math.max(5, Math.min(1000, 50_000_000L / Math.max(1, n)));
+
+        double strings = best(() -> {
+            long sum = 0;
+            for (String f : fields) sum += Integer.parseInt(f);
+            return sum;
+        }, runs);
+        double bytesToStrings = best(() -> {
+            long sum = 0;
+            for (int i = 0, start = 0; i < bytes.length; i++) {
+                if (bytes[i] == ',') {
+                    sum += Integer.parseInt(new String(bytes, start, i - start, StandardCharsets.US_ASCII));
+                    start = i + 1;
+                }
+            }
+            return sum;
+        }, runs);
+        double bulk = best(() -> parser.parseInts(bytes, 0, bytes.length, out, ends), runs);
+        if (!Arrays.equals(out, values)) throw new IllegalStateException("BulkIntParser disagrees with Integer.parseInt");
+
+        System.out.printf("%s, %d fields, %.1f MB%n", name, n, bytes.length / 1e6);
+        System.out.printf("  %-32s %9.1f ms %8.1f M fields/s%n", "Integer.parseInt(String)", strings, n / strings / 1e3);
+        System.out.printf("  %-32s %9.1f ms %8.1f M fields/s%n", "new String + Integer.parseInt", bytesToStrings, n / bytesToStrings / 1e3);
+        System.out.printf("  %-32s %9.1f ms %8.1f M fields/s%n", "BulkIntParser", bulk, n / bulk / 1e3);
+    }
+
+    private static long sink; // keeps the results from being optimised away
+
+    // milliseconds of the fastest run (the first runs double as JIT warm-up)
+    private static double best(LongSupplier run, int runs) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long t = System.nanoTime();
+            sink += run.getAsLong();
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        return best / 1e6;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Reductions over int[] ranges: max, min, sum, xor and argmax
+ * Two implementations share this interface:
+ * - VectorIntReductions (Vector/, built separately): jdk.incubator.vector IntVector lanes (SIMD)
+ * - Scalar: plain loops, used when the incubator module is not available
+ * IntReductions.best() picks the SIMD one when it can be loaded.
+ *
+ * sum() accumulates into a long, so it never overflows for any int[].
+ * On an empty range max() is Integer.MIN_VALUE, min() Integer.MAX_VALUE,
+ * sum()/xor() 0 and argmax() -1.
+ *
+ * Time Complexity: O(n) per reduction
+ * Space Complexity: O(1)
+ */
+public interface IntReductions {
+    int max(int[] a, int from, int to);
+    int min(int[] a, int from, int to);
+    long sum(int[] a, int from, int to);
+    int xor(int[] a, int from, int to);
+    int argmax(int[] a, int from, int to); // index of the first maximum
+
+    default int max(int[] a) { return max(a, 0, a.length); }
+    default int min(int[] a) { return min(a, 0, a.length); }
+    default long sum(int[] a) { return sum(a, 0, a.length); }
+    default int xor(int[] a) { return xor(a, 0, a.length); }
+    default int argmax(int[] a) { return argmax(a, 0, a.length); }
+
+    final class Scalar implements IntReductions {
+        public int max(int[] a, int from, int to) {
+            int max = Integer.MIN_VALUE;
+            for (int i = from; i < to; i++) max = Math.max(max, a[i]);
+            return max;
+        }
+
+        public int min(int[] a, int from, int to) {
+            int min = Integer.MAX_VALUE;
+            for (int i = from; i < to; i++) min = Math.min(min, a[i]);
+            return min;
+        }
+
+        public long sum(int[] a, int from, int to) {
+            long sum = 0;
+            for (int i = from; i < to; i++) sum += a[i];
+            return sum;
+        }
+
+        public int xor(int[] a, int from, int to) {
+            int x = 0;
+            for (int i = from; i < to; i++) x ^= a[i];
+            return x;
+        }
+
+        public int argmax(int[] a, int from, int to) {
+            int best = -1;
+            for (int i = from; i < to; i++) {
+                if (best < 0 || a[i] > a[best]) best = i;
+            }
+            return best;
+        }
+    }
+
+    // the SIMD reductions when they can be loaded, otherwise the scalar loops
+    static IntReductions best() {
+        try {
+            return (IntReductions) Class.forName("VectorIntReductions").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) { // not compiled, or jdk.incubator.vector not added
+            return new Scalar();
+        }
+    }
+}
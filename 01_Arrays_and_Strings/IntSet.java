@@ -0,0 +1,125 @@
+/**
+ * Primitive int hash set (open addressing, linear probing)
+ * Replaces Set<Integer>: the elements live in a flat int[], so add/contains
+ * never box. 0 marks an empty slot; a real 0 is tracked by hasZero.
+ *
+ * Time Complexity: O(1) expected per operation
+ * Space Complexity: O(n)
+ */
+public class IntSet {
+    private static final int EMPTY = 0;
+    private static final double MAX_LOAD = 0.5;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] slots;
+    private int mask; // capacity - 1
+    private int shift; // 32 - log2(capacity), for Fibonacci hashing
+    private int threshold;
+    private int size;
+    private boolean hasZero;
+
+    public IntSet() {
+        this(16);
+    }
+
+    public IntSet(int expectedSize) {
+        if (expectedSize > MAX_CAPACITY * MAX_LOAD) {
+            throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        }
+        int capacity = 16;
+        while (capacity * MAX_LOAD < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        slots = new int[capacity];
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        threshold = (int) (capacity * MAX_LOAD);
+    }
+
+    private int slotOf(int value) {
+        return (value * 0x9E3779B9) >>> shift;
+    }
+
+    // true if value was not in the set yet (same contract as Set.add)
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int i = slotOf(value);
+        while (true) {
+            int v = slots[i];
+            if (v == value) {
+                return false;
+            }
+            if (v == EMPTY) {
+                if (size >= threshold && mask + 1 == MAX_CAPACITY) {
+                    throw new IllegalStateException("IntSet is full: " + size + " values");
+                }
+                slots[i] = value;
+                if (++size > threshold) {
+                    rehash();
+                }
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+        int i = slotOf(value);
+        while (true) {
+            int v = slots[i];
+            if (v == value) {
+                return true;
+            }
+            if (v == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void rehash() {
+        int[] old = slots;
+        allocate(old.length * 2);
+        for (int value : old) {
+            if (value != EMPTY) {
+                int i = slotOf(value);
+                while (slots[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = value;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public static void main(String[] args) {
+        IntSet set = new IntSet();
+        int[] values = {3, 0, -7, 3, 0, 12};
+        for (int value : values) {
+            System.out.println("add " + value + " -> " + set.add(value));
+        }
+        System.out.println("contains -7: " + set.contains(-7) + ", contains 5: " + set.contains(5));
+        System.out.println("size = " + set.size());
+    }
+}
@@ -0,0 +1,135 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+
+/**
+ * Longest substring without repeating characters, in one pass over a stream
+ * Sliding window with a last-index table instead of a HashSet<Character>: for
+ * every character the table holds where it was last seen, so on a repeat the
+ * window start jumps straight past the earlier occurrence instead of moving
+ * one step at a time, and nothing is boxed.
+ *
+ * - Characters are code points (a surrogate pair is one character)
+ * - Inputs: CharSequence (String, CharBuffer, ...) or Reader; UTF-8 files mapped
+ *   into a MemorySegment are scanned by MappedLongestUniqueSubstring (Java 22+),
+ *   which keeps this class free of java.lang.foreign
+ * - Memory: the table is paged (256 code points per page, allocated the first
+ *   time one of them shows up) and reused across calls; it is never cleared,
+ *   entries from earlier inputs are simply older than the new window. Only the
+ *   returned Match is allocated per call. Not thread-safe: one instance per thread
+ *
+ * Time Complexity: O(n)
+ * Space Complexity: O(pages touched), at most 0x1100 pages of 4 KB, independent of n
+ */
+public class LongestUniqueSubstring {
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    // longest window of an input; start/end are offsets in the input's own units (chars or bytes)
+    public static final class Match {
+        public final long length; // in characters (code points)
+        public final long start, end; // the window is [start, end)
+
+        Match(long length, long start, long end) {
+            this.length = length;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String toString() {
+            return "length=" + length + " at [" + start + ", " + end + ")";
+        }
+    }
+
+    // per code point: 1 + its index in the character sequence (0 = never seen), and the offset just after it
+    private final long[][] pages = new long[(Character.MAX_CODE_POINT >>> PAGE_BITS) + 1][];
+    private final char[] buffer = new char[8192];
+    long next; // index of the next character; keeps counting across inputs
+
+    // state of the current input
+    long left, leftOffset; // window start (character index, offset)
+    long bestLength, bestStart, bestEnd;
+    private char pendingHigh; // high surrogate waiting for its low half
+    private long pendingOffset;
+
+    void begin() {
+        left = next; // everything in the table is older than this
+        leftOffset = 0;
+        bestLength = bestStart = bestEnd = 0;
+        pendingHigh = 0;
+    }
+
+    long[] page(int codePoint) {
+        long[] page = pages[codePoint >>> PAGE_BITS];
+        if (page == null) page = pages[codePoint >>> PAGE_BITS] = new long[2 << PAGE_BITS];
+        return page;
+    }
+
+    void accept(int codePoint, long endOffset) {
+        long[] page = page(codePoint);
+        int slot = (codePoint & PAGE_MASK) << 1;
+        if (page[slot] > left) { // seen inside the window: jump past that occurrence
+            left = page[slot];
+            leftOffset = page[slot + 1];
+        }
+        page[slot] = ++next;
+        page[slot + 1] = endOffset;
+        if (next - left > bestLength) {
+            bestLength = next - left;
+            bestStart = leftOffset;
+            bestEnd = endOffset;
+        }
+    }
+
+    private void acceptChar(char c, long offset) {
+        if (pendingHigh != 0) {
+            char high = pendingHigh;
+            pendingHigh = 0;
+            if (Character.isLowSurrogate(c)) {
+                accept(Character.toCodePoint(high, c), offset + 1);
+                return;
+            }
+            accept(high, pendingOffset + 1); // unpaired, counts as itself
+        }
+        if (Character.isHighSurrogate(c)) {
+            pendingHigh = c;
+            pendingOffset = offset;
+        } else {
+            accept(c, offset + 1);
+        }
+    }
+
+    Match end() {
+        if (pendingHigh != 0) accept(pendingHigh, pendingOffset + 1);
+        return new Match(bestLength, bestStart, bestEnd);
+    }
+
+    // offsets are char indices into s (for a CharBuffer: relative to its position)
+    public Match find(CharSequence s) {
+        begin();
+        for (int i = 0; i < s.length(); i++) acceptChar(s.charAt(i), i);
+        return end();
+    }
+
+    // offsets are char counts from the current position of the reader; reads it to the end
+    public Match find(Reader reader) throws IOException {
+        begin();
+        long offset = 0;
+        for (int read; (read = reader.read(buffer)) >= 0; offset += read) {
+            for (int i = 0; i < read; i++) acceptChar(buffer[i], offset + i);
+        }
+        return end();
+    }
+
+    public static void main(String[] args) throws IOException {
+        LongestUniqueSubstring scanner = new LongestUniqueSubstring();
+        for (String s : new String[]{"abcabcbb", "bbbbb", "pwwkew", "", "tmmzuxt", "a😀b😀cd"}) {
+            Match m = scanner.find(s);
+            System.out.println("\"" + s + "\": " + m + " \"" + s.substring((int) m.start, (int) m.end) + "\"");
+        }
+        System.out.println("Reader \"dvdf\": " + scanner.find(new StringReader("dvdf")));
+        System.out.println("CharBuffer \"abba\": " + scanner.find(CharBuffer.wrap("abba")));
+    }
+}
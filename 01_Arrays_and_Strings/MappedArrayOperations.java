@@ -0,0 +1,217 @@
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ArrayOperations on int arrays that live in files (JDK 22+)
+ * The file is a flat sequence of 32-bit ints (little-endian by default),
+ * mapped with FileChannel.map into a MemorySegment, which unlike a
+ * MappedByteBuffer/IntBuffer is not limited to 2 GB. Every operation reads
+ * (and writes) the mapping front to back, so the OS streams pages in with
+ * read-ahead and evicts them behind us: files larger than RAM work, nothing
+ * is copied to the Java heap, and the speed is that of the disk / page cache.
+ *
+ * - findMax, findMissingNumber (xor, cannot overflow): one sequential pass
+ * - reverseArray: two cursors streaming from both ends towards the middle
+ * - moveZeros: stable, in place; a write cursor that trails the read cursor
+ * - containsDuplicate: one pass for min/max, then a bitmap of the value range
+ *   in native memory (at most 512 MB for the whole int range); with a smaller
+ *   bitmap budget the range is covered in several passes over the file.
+ *   Inputs of up to 64K ints use an IntSet instead
+ * IntBuffer overloads wrap the buffer with MemorySegment.ofBuffer (no copy).
+ *
+ * Time Complexity: O(n) per operation (containsDuplicate: O(n * passes))
+ * Space Complexity: O(1) heap; containsDuplicate uses up to bitmapBytes off-heap
+ */
+public class MappedArrayOperations {
+    public static final long MAX_BITMAP_BYTES = 1L << 29; // 2^32 bits: one bit per int value
+    private static final int SMALL_INPUT = 1 << 16; // containsDuplicate uses an IntSet up to here
+
+    // must be a constant: C2 only turns segment accesses into plain loads for a static final layout
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final ByteOrder order;
+    private final boolean swap; // big-endian file: reverse the bytes of every int
+
+    public MappedArrayOperations() {
+        this(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public MappedArrayOperations(ByteOrder order) {
+        this.order = order;
+        this.swap = order != ByteOrder.LITTLE_ENDIAN;
+    }
+
+    private int get(MemorySegment ints, long index) {
+        int v = ints.getAtIndex(INT, index);
+        return swap ? Integer.reverseBytes(v) : v;
+    }
+
+    private void set(MemorySegment ints, long index, int value) {
+        ints.setAtIndex(INT, index, swap ? Integer.reverseBytes(value) : value);
+    }
+
+    // maps the whole file; the mapping lives until arena is closed
+    public static MemorySegment map(Path path, FileChannel.MapMode mode, Arena arena) throws IOException {
+        try (FileChannel channel = mode == FileChannel.MapMode.READ_ONLY
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(mode, 0, channel.size(), arena);
+        }
+    }
+
+    private static long length(MemorySegment ints) {
+        if (ints.byteSize() % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("not a whole number of ints: " + ints.byteSize() + " bytes");
+        }
+        return ints.byteSize() / Integer.BYTES;
+    }
+
+    private MappedArrayOperations forBuffer(IntBuffer buffer) {
+        return buffer.order() == order ? this : new MappedArrayOperations(buffer.order());
+    }
+
+    public int findMax(MemorySegment ints) {
+        long n = length(ints);
+        int max = Integer.MIN_VALUE;
+        for (long i = 0; i < n; i++) max = Math.max(max, get(ints, i));
+        return max;
+    }
+
+    public int findMax(IntBuffer buffer) {
+        return forBuffer(buffer).findMax(MemorySegment.ofBuffer(buffer));
+    }
+
+    // xor of 0..n with every element leaves the missing one; no sum that could overflow
+    public int findMissingNumber(MemorySegment ints) {
+        long n = length(ints);
+        if (n > Integer.MAX_VALUE) throw new IllegalArgumentException("values 0.." + n + " do not fit in int");
+        int x = 0;
+        for (long i = 0; i < n; i++) x ^= get(ints, i);
+        int expected = switch ((int) (n & 3)) { // xor of 0..n
+            case 0 -> (int) n;
+            case 1 -> 1;
+            case 2 -> (int) n + 1;
+            default -> 0;
+        };
+        return x ^ expected;
+    }
+
+    public int findMissingNumber(IntBuffer buffer) {
+        return forBuffer(buffer).findMissingNumber(MemorySegment.ofBuffer(buffer));
+    }
+
+    public boolean containsDuplicate(MemorySegment ints) {
+        return containsDuplicate(ints, MAX_BITMAP_BYTES);
+    }
+
+    // bitmapBytes bounds the native memory; smaller budgets cost extra passes over the data
+    public boolean containsDuplicate(MemorySegment ints, long bitmapBytes) {
+        long n = length(ints);
+        if (n < 2) return false;
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (long i = 0; i < n; i++) {
+            int v = get(ints, i);
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        long range = (long) max - min + 1;
+        if (n > range) return true; // pigeonhole
+        if (n <= SMALL_INPUT) { // a bitmap of a sparse range would cost more than a small heap set
+            IntSet set = new IntSet((int) n);
+            for (long i = 0; i < n; i++) if (!set.add(get(ints, i))) return true;
+            return false;
+        }
+        long bitsPerPass = Math.max(64, Math.min(bitmapBytes, MAX_BITMAP_BYTES) * 8) & ~63L;
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment bitmap = arena.allocate(Math.min(range + 63, bitsPerPass) / 64 * Long.BYTES, Long.BYTES);
+            for (long low = min; low <= max; low += bitsPerPass) { // values [low, low + bitsPerPass) in this pass
+                if (low != min) bitmap.fill((byte) 0); // allocate() already zeroed it for the first pass
+                for (long i = 0; i < n; i++) {
+                    long bit = get(ints, i) - low;
+                    if (bit < 0 || bit >= bitsPerPass) continue;
+                    long word = bitmap.getAtIndex(ValueLayout.JAVA_LONG, bit >>> 6);
+                    long mask = 1L << bit;
+                    if ((word & mask) != 0) return true;
+                    bitmap.setAtIndex(ValueLayout.JAVA_LONG, bit >>> 6, word | mask);
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean containsDuplicate(IntBuffer buffer) {
+        return forBuffer(buffer).containsDuplicate(MemorySegment.ofBuffer(buffer));
+    }
+
+    public void reverseArray(MemorySegment ints) {
+        for (long left = 0, right = length(ints) - 1; left < right; left++, right--) {
+            int temp = get(ints, left);
+            set(ints, left, get(ints, right));
+            set(ints, right, temp);
+        }
+    }
+
+    public void reverseArray(IntBuffer buffer) {
+        forBuffer(buffer).reverseArray(MemorySegment.ofBuffer(buffer));
+    }
+
+    public void moveZeros(MemorySegment ints) {
+        long n = length(ints);
+        long nonZeroIndex = 0;
+        for (long i = 0; i < n; i++) {
+            int v = get(ints, i);
+            if (v != 0) {
+                if (i != nonZeroIndex) set(ints, nonZeroIndex, v); // untouched pages stay clean
+                nonZeroIndex++;
+            }
+        }
+        ints.asSlice(nonZeroIndex * Integer.BYTES).fill((byte) 0);
+    }
+
+    public void moveZeros(IntBuffer buffer) {
+        forBuffer(buffer).moveZeros(MemorySegment.ofBuffer(buffer));
+    }
+
+    // demo on a small file; with [count] it writes count random ints and reports the throughput
+    public static void main(String[] args) throws IOException {
+        long count = args.length > 0 ? Long.parseLong(args[0].replace("_", "")) : 10;
+        Path path = Files.createTempFile("ints", ".bin");
+        MappedArrayOperations ops = new MappedArrayOperations();
+        try (Arena arena = Arena.ofShared();
+             FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MemorySegment ints = channel.map(FileChannel.MapMode.READ_WRITE, 0, count * Integer.BYTES, arena);
+            Random random = new Random(42);
+            for (long i = 0; i < count; i++) ops.set(ints, i, i % 4 == 0 ? 0 : random.nextInt(100));
+            if (count <= 20) System.out.println("File: " + Arrays.toString(ints.toArray(INT)));
+            long t = System.nanoTime();
+            System.out.println("Max (Mapped): " + ops.findMax(ints));
+            report("findMax", count, t);
+            t = System.nanoTime();
+            System.out.println("Has Duplicates (Mapped): " + ops.containsDuplicate(ints));
+            report("containsDuplicate", count, t);
+            t = System.nanoTime();
+            ops.moveZeros(ints);
+            report("moveZeros", count, t);
+            t = System.nanoTime();
+            ops.reverseArray(ints);
+            report("reverseArray", count, t);
+            if (count <= 20) System.out.println("Move Zeros + Reverse (Mapped): " + Arrays.toString(ints.toArray(INT)));
+            IntBuffer missing = IntBuffer.wrap(new int[]{0, 1, 3, 4, 5});
+            System.out.println("Missing Number (IntBuffer): " + ops.findMissingNumber(missing));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static void report(String op, long count, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (count > 1_000_000) System.out.printf("  %s: %.0f MB/s%n", op, count * Integer.BYTES / 1e6 / seconds);
+    }
+}
@@ -0,0 +1,118 @@
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * LongestUniqueSubstring over UTF-8 files mapped into a MemorySegment (JDK 22+)
+ * The file is decoded inline while it is scanned, so multi-GB logs are checked
+ * without loading them; malformed UTF-8 bytes count as U+FFFD. Runs of ASCII
+ * bytes take a fast path on local copies of the window state.
+ * The CharSequence / Reader scans of the base class stay available, and the
+ * table is shared with them (same reuse rules: one instance per thread).
+ *
+ * Time Complexity: O(n) bytes
+ * Space Complexity: O(pages touched), independent of the file size
+ */
+public class MappedLongestUniqueSubstring extends LongestUniqueSubstring {
+
+    // offsets are byte offsets into utf8
+    public Match find(MemorySegment utf8) {
+        begin();
+        long n = utf8.byteSize();
+        long[] ascii = page(0);
+        for (long i = 0; i < n; ) {
+            int b = utf8.get(ValueLayout.JAVA_BYTE, i);
+            if (b >= 0) { // ASCII: the same steps as accept(), on locals (C2 would write the fields every byte)
+                long left = this.left, leftOffset = this.leftOffset, next = this.next;
+                long bestLength = this.bestLength, bestStart = this.bestStart, bestEnd = this.bestEnd;
+                do {
+                    int slot = b << 1;
+                    if (ascii[slot] > left) {
+                        left = ascii[slot];
+                        leftOffset = ascii[slot + 1];
+                    }
+                    ascii[slot] = ++next;
+                    ascii[slot + 1] = ++i;
+                    if (next - left > bestLength) {
+                        bestLength = next - left;
+                        bestStart = leftOffset;
+                        bestEnd = i;
+                    }
+                } while (i < n && (b = utf8.get(ValueLayout.JAVA_BYTE, i)) >= 0);
+                this.left = left;
+                this.leftOffset = leftOffset;
+                this.next = next;
+                this.bestLength = bestLength;
+                this.bestStart = bestStart;
+                this.bestEnd = bestEnd;
+                continue;
+            }
+            int length = b >= (byte) 0xF0 ? (b < (byte) 0xF5 ? 4 : 0) : b >= (byte) 0xE0 ? 3 : b >= (byte) 0xC2 ? 2 : 0;
+            int codePoint = length == 4 ? b & 0x07 : length == 3 ? b & 0x0F : b & 0x1F;
+            for (int k = 1; k < length; k++) {
+                int c = i + k < n ? utf8.get(ValueLayout.JAVA_BYTE, i + k) : 0;
+                if ((c & 0xC0) != 0x80) {
+                    length = 0;
+                    break;
+                }
+                codePoint = codePoint << 6 | (c & 0x3F);
+            }
+            // overlong forms, surrogates and values above U+10FFFF are malformed as well
+            if (length == 3 && (codePoint < 0x800 || Character.isSurrogate((char) codePoint))
+                    || length == 4 && (codePoint < 0x10000 || codePoint > Character.MAX_CODE_POINT)) {
+                length = 0;
+            }
+            if (length == 0) {
+                accept(0xFFFD, i + 1);
+                i++;
+            } else {
+                accept(codePoint, i + length);
+                i += length;
+            }
+        }
+        return end();
+    }
+
+    // maps the file read-only for the duration of the scan
+    public Match find(Path utf8File) throws IOException {
+        try (Arena arena = Arena.ofConfined()) {
+            return find(MappedArrayOperations.map(utf8File, FileChannel.MapMode.READ_ONLY, arena));
+        }
+    }
+
+    // demo; with [megabytes] it also scans a generated log file of that size and reports the throughput
+    public static void main(String[] args) throws IOException {
+        MappedLongestUniqueSubstring scanner = new MappedLongestUniqueSubstring();
+        long megabytes = args.length > 0 ? Long.parseLong(args[0]) : 0;
+        Path path = Files.createTempFile("log", ".txt");
+        try {
+            Files.writeString(path, "crème brûlée, crème caramel");
+            Match m = scanner.find(path);
+            byte[] bytes = Files.readAllBytes(path);
+            System.out.println("UTF-8 file: " + m + " \"" + new String(bytes, (int) m.start, (int) (m.end - m.start), StandardCharsets.UTF_8) + "\"");
+            if (megabytes > 0) {
+                byte[] line = "2024-05-01 12:00:00 INFO request served in 12 ms by worker-7\n".getBytes(StandardCharsets.UTF_8);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer chunk = ByteBuffer.allocate(line.length * 16384);
+                    while (chunk.remaining() >= line.length) chunk.put(line);
+                    chunk.flip();
+                    for (long written = 0; written < megabytes << 20; written += chunk.limit()) {
+                        channel.write(chunk);
+                        chunk.rewind();
+                    }
+                }
+                long t = System.nanoTime();
+                m = scanner.find(path);
+                double seconds = (System.nanoTime() - t) / 1e9;
+                System.out.printf("%d MB log: %s, %.0f MB/s%n", megabytes, m, Files.size(path) / 1e6 / seconds);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Parallel versions of the ArrayOperations "Best" methods on a ForkJoinPool
+ * The array is cut into chunks of at least `threshold` elements (at most 4 per
+ * worker, for load balancing); a RecursiveAction splits the chunk range in
+ * halves until one chunk is left and runs it. Arrays shorter than twice the
+ * threshold are handled sequentially, where forking costs more than it saves.
+ *
+ * - findMax / findMissingNumber: per-chunk SIMD reductions (IntReductions), combined at the end
+ * - containsDuplicate: hash-partition the values (count, prefix sum, scatter) so
+ *   equal values land in the same partition, then check partitions independently
+ * - moveZeros: stable compaction; chunk k writes its non-zeros at the prefix sum
+ *   of the non-zero counts of chunks 0..k-1
+ * - reverseArray: chunks of the first half swap with their mirror
+ *
+ * Time Complexity: O(n / p + chunks) with p workers
+ * Space Complexity: O(1) for max/missing/reverse, O(n) for containsDuplicate and moveZeros
+ */
+public class ParallelArrayOperations {
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+    private static final IntReductions REDUCTIONS = IntReductions.best();
+    private static final int PARTITION_BITS = 8;
+
+    private final ForkJoinChunks forkJoin;
+
+    public ParallelArrayOperations() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelArrayOperations(ForkJoinPool pool, int threshold) {
+        this.forkJoin = new ForkJoinChunks(pool, threshold);
+    }
+
+    private static int chunkStart(int chunk, int chunks, int n) {
+        return (int) ForkJoinChunks.start(chunk, chunks, n);
+    }
+
+    public int findMax(int[] arr) {
+        int chunks = forkJoin.chunks(arr.length);
+        int[] max = new int[chunks];
+        forkJoin.forEach(chunks, c -> max[c] = REDUCTIONS.max(arr, chunkStart(c, chunks, arr.length), chunkStart(c + 1, chunks, arr.length)));
+        return REDUCTIONS.max(max);
+    }
+
+    public int findMissingNumber(int[] arr) {
+        int n = arr.length;
+        int chunks = forkJoin.chunks(n);
+        long[] sum = new long[chunks];
+        forkJoin.forEach(chunks, c -> sum[c] = REDUCTIONS.sum(arr, chunkStart(c, chunks, n), chunkStart(c + 1, chunks, n)));
+        long actualSum = 0;
+        for (long s : sum) actualSum += s;
+        return (int) ((long) n * (n + 1) / 2 - actualSum);
+    }
+
+    // murmur3 fmix32; IntSet uses the top bits of value * 0x9E3779B9, so partitions must not
+    private static int partitionOf(int value) {
+        value ^= value >>> 16;
+        value *= 0x85EBCA6B;
+        value ^= value >>> 13;
+        value *= 0xC2B2AE35;
+        value ^= value >>> 16;
+        return value >>> (32 - PARTITION_BITS);
+    }
+
+    public boolean containsDuplicate(int[] arr) {
+        int n = arr.length;
+        int chunks = forkJoin.chunks(n);
+        if (chunks == 1) {
+            IntSet set = new IntSet(n);
+            for (int num : arr) if (!set.add(num)) return true;
+            return false;
+        }
+        int partitions = 1 << PARTITION_BITS;
+        // 1. per-chunk histogram of partitions
+        int[][] offset = new int[chunks][partitions];
+        forkJoin.forEach(chunks, c -> {
+            int[] count = offset[c];
+            for (int i = chunkStart(c, chunks, n), end = chunkStart(c + 1, chunks, n); i < end; i++) count[partitionOf(arr[i])]++;
+        });
+        // 2. exclusive prefix sum, partition-major: where chunk c writes its values of partition p
+        int[] partitionStart = new int[partitions + 1];
+        int position = 0;
+        for (int p = 0; p < partitions; p++) {
+            partitionStart[p] = position;
+            for (int c = 0; c < chunks; c++) {
+                int count = offset[c][p];
+                offset[c][p] = position;
+                position += count;
+            }
+        }
+        partitionStart[partitions] = n;
+        // 3. scatter
+        int[] grouped = new int[n];
+        forkJoin.forEach(chunks, c -> {
+            int[] next = offset[c];
+            for (int i = chunkStart(c, chunks, n), end = chunkStart(c + 1, chunks, n); i < end; i++) grouped[next[partitionOf(arr[i])]++] = arr[i];
+        });
+        // 4. equal values share a partition: check each one on its own, stop everyone at the first hit
+        AtomicBoolean found = new AtomicBoolean(); // volatile: a hit in one chunk is seen by the others' loops
+        forkJoin.forEach(chunks, c -> {
+            for (int p = partitions * c / chunks, last = partitions * (c + 1) / chunks; p < last && !found.get(); p++) {
+                IntSet set = new IntSet(partitionStart[p + 1] - partitionStart[p]);
+                for (int i = partitionStart[p]; i < partitionStart[p + 1]; i++) {
+                    if (!set.add(grouped[i])) {
+                        found.set(true);
+                        break;
+                    }
+                }
+            }
+        });
+        return found.get();
+    }
+
+    public void moveZeros(int[] arr) {
+        int n = arr.length;
+        int chunks = forkJoin.chunks(n);
+        if (chunks == 1) {
+            int nonZeroIndex = 0;
+            for (int i = 0; i < n; i++) if (arr[i] != 0) arr[nonZeroIndex++] = arr[i];
+            Arrays.fill(arr, nonZeroIndex, n, 0);
+            return;
+        }
+        // 1. non-zeros per chunk, 2. prefix sums give each chunk its output offset
+        int[] offset = new int[chunks + 1];
+        forkJoin.forEach(chunks, c -> {
+            int count = 0;
+            for (int i = chunkStart(c, chunks, n), end = chunkStart(c + 1, chunks, n); i < end; i++) if (arr[i] != 0) count++;
+            offset[c + 1] = count;
+        });
+        for (int c = 0; c < chunks; c++) offset[c + 1] += offset[c];
+        // 3. compact into a copy (in place, a chunk could overwrite values another chunk has not read yet)
+        int[] compacted = new int[offset[chunks]];
+        forkJoin.forEach(chunks, c -> {
+            int out = offset[c];
+            for (int i = chunkStart(c, chunks, n), end = chunkStart(c + 1, chunks, n); i < end; i++) if (arr[i] != 0) compacted[out++] = arr[i];
+        });
+        // 4. copy back and zero the tail
+        int nonZero = compacted.length;
+        forkJoin.forEach(chunks, c -> {
+            int from = chunkStart(c, chunks, n), to = chunkStart(c + 1, chunks, n);
+            if (from < nonZero) System.arraycopy(compacted, from, arr, from, Math.min(to, nonZero) - from);
+            if (to > nonZero) Arrays.fill(arr, Math.max(from, nonZero), to, 0);
+        });
+    }
+
+    public void reverseArray(int[] arr) {
+        int n = arr.length, half = n / 2;
+        int chunks = forkJoin.chunks(n);
+        forkJoin.forEach(chunks, c -> {
+            for (int left = chunkStart(c, chunks, half), end = chunkStart(c + 1, chunks, half); left < end; left++) {
+                int right = n - 1 - left;
+                int temp = arr[left];
+                arr[left] = arr[right];
+                arr[right] = temp;
+            }
+        });
+    }
+
+    public static void main(String[] args) {
+        ParallelArrayOperations ops = new ParallelArrayOperations(new ForkJoinPool(4), 4); // tiny threshold so the demo forks
+        int[] arr = {0, 1, 0, 3, 12, 0, 7, 9, 0, 4};
+        System.out.println("Array: " + Arrays.toString(arr));
+        System.out.println("Max (Parallel): " + ops.findMax(arr));
+        System.out.println("Has Duplicates (Parallel): " + ops.containsDuplicate(arr));
+        ops.moveZeros(arr);
+        System.out.println("Move Zeros (Parallel): " + Arrays.toString(arr));
+        ops.reverseArray(arr);
+        System.out.println("Reverse (Parallel): " + Arrays.toString(arr));
+        int[] missingArr = {0, 1, 3, 4, 5, 6, 7, 8, 9};
+        System.out.println("Missing Number (Parallel): " + ops.findMissingNumber(missingArr));
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Where does ParallelArrayOperations start to pay off?
+ * Times every parallel operation on pools of 1, 2, 4, ..., 64 threads (up to
+ * the last argument) against the sequential ArrayOperations / IntSet code on
+ * the same array, and prints the sequential ms (best of 5) and the speedup at
+ * every pool size.
+ * Beyond the number of cores, extra threads only add scheduling overhead.
+ *
+ * Run:   javac *.java && javac --add-modules jdk.incubator.vector -cp . -d . Vector/VectorIntReductions.java
+ *        java --add-modules jdk.incubator.vector -Xmx4g ParallelScalingBenchmark [array length] [threshold] [max threads]
+ * (default 50M elements, threshold 65536, 64 threads)
+ */
+public class ParallelScalingBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 50_000_000;
+        int threshold = args.length > 1 ? Integer.parseInt(args[1].replace("_", "")) : ParallelArrayOperations.DEFAULT_THRESHOLD;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int[] data = new int[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) data[i] = i % 3 == 0 ? 0 : i; // distinct apart from the zeros
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = data[i]; data[i] = data[j]; data[j] = t;
+        }
+        int[] distinct = new int[n];
+        for (int i = 0; i < n; i++) distinct[i] = data[i] == 0 ? -1 - i : data[i]; // no duplicate: worst case
+        int[] work = new int[n];
+        System.out.println("n=" + n + ", threshold=" + threshold + ", cores=" + Runtime.getRuntime().availableProcessors());
+
+        ArrayOperations sequential = new ArrayOperations();
+        Map<String, Consumer<ParallelArrayOperations>> parallel = new LinkedHashMap<>();
+        parallel.put("findMax", ops -> ops.findMax(data));
+        parallel.put("findMissingNumber", ops -> ops.findMissingNumber(data));
+        parallel.put("containsDuplicate", ops -> ops.containsDuplicate(distinct));
+        parallel.put("moveZeros", ops -> { System.arraycopy(data, 0, work, 0, n); ops.moveZeros(work); });
+        parallel.put("reverseArray", ops -> ops.reverseArray(work));
+        Map<String, Runnable> baseline = new LinkedHashMap<>();
+        baseline.put("findMax", () -> sequential.findMaxBest(data));
+        baseline.put("findMissingNumber", () -> sequential.findMissingNumberBest(data));
+        baseline.put("containsDuplicate", () -> sequential.containsDuplicateBest(distinct));
+        baseline.put("moveZeros", () -> { // moveZerosBest without the print
+            System.arraycopy(data, 0, work, 0, n);
+            int nonZeroIndex = 0;
+            for (int i = 0; i < n; i++) if (work[i] != 0) work[nonZeroIndex++] = work[i];
+            while (nonZeroIndex < n) work[nonZeroIndex++] = 0;
+        });
+        baseline.put("reverseArray", () -> {
+            for (int left = 0, right = n - 1; left < right; left++, right--) {
+                int t = work[left]; work[left] = work[right]; work[right] = t;
+            }
+        });
+
+        System.out.printf("%-18s %10s", "operation", "seq(ms)");
+        for (int t = 1; t <= maxThreads; t *= 2) System.out.printf(" %9s", t + "T");
+        System.out.println();
+        for (String name : parallel.keySet()) {
+            double seq = best(baseline.get(name));
+            System.out.printf("%-18s %10.1f", name, seq);
+            for (int t = 1; t <= maxThreads; t *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(t);
+                ParallelArrayOperations ops = new ParallelArrayOperations(pool, threshold);
+                double ms = best(() -> parallel.get(name).accept(ops));
+                System.out.printf(" %9s", String.format("%.1fx", seq / ms));
+                pool.shutdown();
+            }
+            System.out.println();
+        }
+        System.out.println("(columns after seq: speedup over sequential with T pool threads)");
+    }
+
+    // milliseconds of the fastest of 5 runs (the first runs double as JIT warm-up)
+    private static double best(Runnable task) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long t = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        return best / 1e6;
+    }
+}
@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * isPalindromeBest / reverseStringBest for byte payloads far larger than a String (JDK 22+)
+ * The text is a MemorySegment, typically a file mapped with
+ * MappedArrayOperations.map, so nothing is copied to the heap. The work is cut
+ * into chunks of at least `threshold` bytes (at most 4 per worker) that run on
+ * a ForkJoinPool, through the same ForkJoinChunks as ParallelArrayOperations.
+ *
+ * - isPalindrome: chunk k of the front half is compared with its mirror in the
+ *   back half, 8 bytes per step: a long from the front must equal the
+ *   byte-reversed (Long.reverseBytes, a single bswap) long from the back. The
+ *   first mismatch stops the other chunks. Compares bytes, like
+ *   isPalindromeBest compares chars
+ * - reverse in place: chunk k of the front half swaps with its mirror, 8 bytes per step
+ * - reverse into another segment (e.g. a mapped output file of the same size):
+ *   every chunk writes its bytes byte-reversed at the mirrored position
+ * - utf8 mode: after the byte reversal every multi-byte character is backwards
+ *   (continuation bytes first, lead byte last); a second parallel pass flips
+ *   those back, a long at a time (ASCII words are skipped whole), with chunk
+ *   boundaries moved to character boundaries so no character is split.
+ *   Malformed bytes stay as they are
+ *
+ * Time Complexity: O(n / p + chunks) with p workers
+ * Space Complexity: O(1), besides the output segment
+ */
+public class ParallelTextOperations {
+    public static final long DEFAULT_THRESHOLD = 1 << 20;
+    private static final long CANCEL_CHECK = 1 << 16; // bytes compared between looks at the stop flag
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    // must be constants: C2 only turns segment accesses into plain loads for static final layouts
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+
+    private final ForkJoinChunks forkJoin;
+
+    public ParallelTextOperations() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelTextOperations(ForkJoinPool pool, long threshold) {
+        this.forkJoin = new ForkJoinChunks(pool, threshold);
+    }
+
+    public boolean isPalindrome(MemorySegment text) {
+        long n = text.byteSize(), half = n / 2;
+        int chunks = forkJoin.chunks(half);
+        AtomicBoolean mismatch = new AtomicBoolean(); // volatile: the first mismatch stops the other chunks
+        forkJoin.forEach(chunks, c -> {
+            long i = ForkJoinChunks.start(c, chunks, half), end = ForkJoinChunks.start(c + 1, chunks, half);
+            while (i < end && !mismatch.get()) {
+                long stop = Math.min(end, i + CANCEL_CHECK);
+                for (; i + Long.BYTES <= stop; i += Long.BYTES) {
+                    if (text.get(LONG, i) != Long.reverseBytes(text.get(LONG, n - Long.BYTES - i))) {
+                        mismatch.set(true);
+                        return;
+                    }
+                }
+                for (; i < stop; i++) {
+                    if (text.get(BYTE, i) != text.get(BYTE, n - 1 - i)) {
+                        mismatch.set(true);
+                        return;
+                    }
+                }
+            }
+        });
+        return !mismatch.get();
+    }
+
+    public void reverse(MemorySegment text, boolean utf8) {
+        long n = text.byteSize(), half = n / 2;
+        int chunks = forkJoin.chunks(half);
+        forkJoin.forEach(chunks, c -> {
+            long i = ForkJoinChunks.start(c, chunks, half), end = ForkJoinChunks.start(c + 1, chunks, half);
+            for (; i + Long.BYTES <= end; i += Long.BYTES) {
+                long front = text.get(LONG, i), back = text.get(LONG, n - Long.BYTES - i);
+                text.set(LONG, i, Long.reverseBytes(back));
+                text.set(LONG, n - Long.BYTES - i, Long.reverseBytes(front));
+            }
+            for (; i < end; i++) {
+                byte temp = text.get(BYTE, i);
+                text.set(BYTE, i, text.get(BYTE, n - 1 - i));
+                text.set(BYTE, n - 1 - i, temp);
+            }
+        });
+        if (utf8) fixCharacters(text);
+    }
+
+    // writes the reversed text into output (same size, not overlapping); text is only read
+    public void reverse(MemorySegment text, MemorySegment output, boolean utf8) {
+        long n = text.byteSize();
+        if (output.byteSize() != n) {
+            throw new IllegalArgumentException("output has " + output.byteSize() + " bytes, text " + n);
+        }
+        int chunks = forkJoin.chunks(n);
+        forkJoin.forEach(chunks, c -> {
+            long i = ForkJoinChunks.start(c, chunks, n), end = ForkJoinChunks.start(c + 1, chunks, n);
+            for (; i + Long.BYTES <= end; i += Long.BYTES) {
+                output.set(LONG, n - Long.BYTES - i, Long.reverseBytes(text.get(LONG, i)));
+            }
+            for (; i < end; i++) output.set(BYTE, n - 1 - i, text.get(BYTE, i));
+        });
+        if (utf8) fixCharacters(output);
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    // first position >= p that starts a (reversed) character: its previous byte is not a continuation byte
+    private static long characterBoundary(MemorySegment text, long p) {
+        while (p > 0 && p < text.byteSize() && isContinuation(text.get(BYTE, p - 1))) p++;
+        return p;
+    }
+
+    // byte-reversed UTF-8: continuation bytes followed by their lead byte; put each such run back in order
+    private void fixCharacters(MemorySegment text) {
+        long n = text.byteSize();
+        int chunks = forkJoin.chunks(n);
+        // boundaries first: once a chunk has flipped its characters, its bytes no longer tell where a neighbour starts
+        long[] bound = new long[chunks + 1];
+        for (int c = 0; c <= chunks; c++) bound[c] = characterBoundary(text, ForkJoinChunks.start(c, chunks, n));
+        forkJoin.forEach(chunks, c -> {
+            long i = bound[c], end = bound[c + 1];
+            // a word at a time: flip every character that ends in the word in registers, then store
+            // once (storing after each one would make the next, overlapping load wait for the store)
+            while (i + Long.BYTES <= end) {
+                long w = text.get(LONG, i);
+                long high = w & HIGH_BITS;
+                if (high == 0) { // 8 ASCII bytes
+                    i += Long.BYTES;
+                    continue;
+                }
+                long notContinuation = ~(high & ~(w << 1)) & HIGH_BITS; // ASCII or 11xxxxxx
+                long out = w;
+                for (long lead = high & w << 1; lead != 0; lead &= lead - 1) { // 11xxxxxx ends a reversed character
+                    int q = Long.numberOfTrailingZeros(lead) >>> 3;
+                    long before = notContinuation & ~(-1L << 8 * q); // bytes below q that are not continuations
+                    int start = before == 0 ? 0 : (63 - Long.numberOfLeadingZeros(before) >>> 3) + 1;
+                    int bits = 8 * (q - start + 1);
+                    long mask = -1L >>> (64 - bits) << 8 * start;
+                    out = out & ~mask | Long.reverseBytes(w >>> 8 * start) >>> (64 - bits) << 8 * start;
+                }
+                if (out != w) text.set(LONG, i, out);
+                // continue after the last byte that is not a continuation: a character cut off by the word end starts there
+                i += notContinuation == 0 ? Long.BYTES : (63 - Long.numberOfLeadingZeros(notContinuation) >>> 3) + 1;
+            }
+            while (i < end) { // the last < 8 bytes
+                if (text.get(BYTE, i) >= 0) {
+                    i++;
+                    continue;
+                }
+                long j = i;
+                while (j < end && isContinuation(text.get(BYTE, j))) j++;
+                if (j < end && (text.get(BYTE, j) & 0xC0) == 0xC0) { // lead byte: [i, j] is one character
+                    for (long l = i, r = j; l < r; l++, r--) {
+                        byte temp = text.get(BYTE, l);
+                        text.set(BYTE, l, text.get(BYTE, r));
+                        text.set(BYTE, r, temp);
+                    }
+                }
+                i = j + 1;
+            }
+        });
+    }
+
+    public boolean isPalindrome(Path file) throws IOException {
+        try (Arena arena = Arena.ofShared()) { // shared: the pool's threads read the mapping
+            return isPalindrome(MappedArrayOperations.map(file, FileChannel.MapMode.READ_ONLY, arena));
+        }
+    }
+
+    // reverses file into output (created or truncated to the same size)
+    public void reverse(Path file, Path output, boolean utf8) throws IOException {
+        try (Arena arena = Arena.ofShared();
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MemorySegment text = MappedArrayOperations.map(file, FileChannel.MapMode.READ_ONLY, arena);
+            reverse(text, out.map(FileChannel.MapMode.READ_WRITE, 0, text.byteSize(), arena), utf8);
+        }
+    }
+
+    // demo; with [megabytes] it also times the operations on a generated file of that size
+    public static void main(String[] args) throws IOException {
+        ParallelTextOperations ops = new ParallelTextOperations(new ForkJoinPool(4), 4); // tiny threshold so the demo forks
+        try (Arena arena = Arena.ofShared()) {
+            for (String s : new String[]{"racecar", "A man, a plan", "abcdefghhgfedcba", "crème brûlée 😀"}) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                MemorySegment text = arena.allocate(bytes.length);
+                text.copyFrom(MemorySegment.ofArray(bytes));
+                boolean palindrome = ops.isPalindrome(text);
+                ops.reverse(text, true);
+                System.out.println("\"" + s + "\": palindrome " + palindrome + ", reversed (UTF-8) \""
+                        + new String(text.toArray(BYTE), StandardCharsets.UTF_8) + "\"");
+            }
+        }
+        if (args.length == 0) return;
+        long bytes = Long.parseLong(args[0]) << 20;
+        ParallelTextOperations parallel = new ParallelTextOperations();
+        Path file = Files.createTempFile("text", ".txt"), reversed = Files.createTempFile("reversed", ".txt");
+        try (Arena arena = Arena.ofShared();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MemorySegment text = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes, arena);
+            byte[] pattern = "naïve café, 😀 ".getBytes(StandardCharsets.UTF_8);
+            for (long i = 0; i < bytes / 2; i++) {
+                byte b = pattern[(int) (i % pattern.length)];
+                text.set(BYTE, i, b);
+                text.set(BYTE, bytes - 1 - i, b);
+            }
+            long t = System.nanoTime();
+            System.out.println("Palindrome: " + parallel.isPalindrome(text));
+            report("isPalindrome", bytes, t);
+            t = System.nanoTime();
+            parallel.reverse(text, false);
+            report("reverse in place", bytes, t);
+            t = System.nanoTime();
+            parallel.reverse(text, true);
+            report("reverse in place, utf8", bytes, t);
+            channel.force(true);
+            t = System.nanoTime();
+            parallel.reverse(file, reversed, true);
+            report("reverse into file, utf8", bytes, t);
+        } finally {
+            Files.delete(file);
+            Files.delete(reversed);
+        }
+    }
+
+    private static void report(String op, long bytes, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %s: %.0f MB/s%n", op, bytes / 1e6 / seconds);
+    }
+}
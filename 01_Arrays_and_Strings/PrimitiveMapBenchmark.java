@@ -0,0 +1,61 @@
+import java.util.*;
+
+/**
+ * Boxed collections vs IntIntMap / IntSet on the ArrayOperations hot paths
+ * Worst-case inputs (no pair sums to the target, no duplicate), so every
+ * element is inserted and looked up. Prints the best of several runs.
+ *
+ * Run:   javac *.java && java -Xmx4g PrimitiveMapBenchmark [array length]
+ */
+public class PrimitiveMapBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 10_000_000;
+        int[] distinct = new int[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) distinct[i] = i * 2 + 1; // odd values: two of them never sum to an odd target
+        for (int i = n - 1; i > 0; i--) { // shuffle
+            int j = random.nextInt(i + 1);
+            int t = distinct[i]; distinct[i] = distinct[j]; distinct[j] = t;
+        }
+        int target = 1;
+        ArrayOperations ops = new ArrayOperations();
+
+        System.out.printf("%-22s %14s %14s %8s%n", "operation (n=" + n + ")", "boxed(ms)", "primitive(ms)", "speedup");
+        double boxed = best(() -> twoSumBoxed(distinct, target));
+        double primitive = best(() -> ops.twoSumBest(distinct, target));
+        System.out.printf("%-22s %14.1f %14.1f %7.1fx%n", "twoSumBest", boxed, primitive, boxed / primitive);
+        boxed = best(() -> containsDuplicateBoxed(distinct));
+        primitive = best(() -> ops.containsDuplicateBest(distinct));
+        System.out.printf("%-22s %14.1f %14.1f %7.1fx%n", "containsDuplicateBest", boxed, primitive, boxed / primitive);
+    }
+
+    // milliseconds of the fastest of 5 runs (the first runs double as JIT warm-up)
+    private static double best(Runnable task) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long t = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        return best / 1e6;
+    }
+
+    // the previous Map<Integer, Integer> implementation, kept as the baseline
+    private static int[] twoSumBoxed(int[] arr, int target) {
+        Map<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < arr.length; i++) {
+            int complement = target - arr[i];
+            if (map.containsKey(complement)) return new int[]{map.get(complement), i};
+            map.put(arr[i], i);
+        }
+        return new int[]{-1, -1};
+    }
+
+    // the previous Set<Integer> implementation, kept as the baseline
+    private static boolean containsDuplicateBoxed(int[] arr) {
+        Set<Integer> set = new HashSet<>();
+        for (int num : arr) if (!set.add(num)) return true;
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Scalar loops vs IntVector lanes for max, min, sum, xor and argmax
+ * Runs every reduction of IntReductions.Scalar and VectorIntReductions over
+ * one large random int[] and prints ms (best of at least 5 runs) and the speedup. Both
+ * implementations must agree, otherwise the benchmark stops.
+ *
+ * Run:   javac *.java && javac --add-modules jdk.incubator.vector -cp . -d . Vector/VectorIntReductions.java
+ *        java --add-modules jdk.incubator.vector -Xmx4g ReductionBenchmark [array length]   (default 100M)
+ */
+public class ReductionBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 100_000_000;
+        int[] arr = new int[n];
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) arr[i] = random.nextInt();
+
+        IntReductions scalar = new IntReductions.Scalar();
+        IntReductions simd = IntReductions.best();
+        if (simd instanceof IntReductions.Scalar) {
+            System.out.println("jdk.incubator.vector not available, comparing scalar with itself");
+        }
+        int runs = (int) Math.max(5, Math.min(1000, 500_000_000L / Math.max(1, n))); // small arrays need more runs before C2 compiles the vector loops
+        Map<String, ToLongFunction<IntReductions>> ops = new LinkedHashMap<>();
+        ops.put("max", r -> r.max(arr));
+        ops.put("min", r -> r.min(arr));
+        ops.put("sum", r -> r.sum(arr));
+        ops.put("xor", r -> r.xor(arr));
+        ops.put("argmax", r -> r.argmax(arr));
+
+        System.out.printf("%-8s %12s %12s %8s%n", "n=" + n, "scalar(ms)", "simd(ms)", "speedup");
+        for (Map.Entry<String, ToLongFunction<IntReductions>> e : ops.entrySet()) {
+            ToLongFunction<IntReductions> op = e.getValue();
+            if (op.applyAsLong(scalar) != op.applyAsLong(simd)) {
+                throw new IllegalStateException(e.getKey() + ": scalar and simd disagree");
+            }
+            double s = best(() -> op.applyAsLong(scalar), runs);
+            double v = best(() -> op.applyAsLong(simd), runs);
+            System.out.printf("%-8s %12.1f %12.1f %7.1fx%n", e.getKey(), s, v, s / v);
+        }
+    }
+
+    private static long sink; // keeps the results from being optimised away
+
+    // milliseconds of the fastest run (the first runs double as JIT warm-up)
+    private static double best(LongSupplier run, int runs) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long t = System.nanoTime();
+            sink += run.getAsLong();
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        return best / 1e6;
+    }
+}
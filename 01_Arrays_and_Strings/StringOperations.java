@@ -33,12 +33,15 @@ public class StringOperations {
         System.out.println(str1 + " vs " + str2 + " (Best): " + stringOps.isAnagramBest(str1, str2));
         System.out.println(str1 + " vs " + str3 + " (Worst): " + stringOps.isAnagramWorst(str1, str3));
         System.out.println(str1 + " vs " + str3 + " (Best): " + stringOps.isAnagramBest(str1, str3));
+        System.out.println("ABC-123 vs 321-CBA (Best): " + stringOps.isAnagramBest("ABC-123", "321-CBA"));
         
         // Test first non-repeating character
         String testChar = "leetcode";
         System.out.println("\nFirst Non-repeating Character:");
         System.out.println(testChar + " (Worst): " + stringOps.firstNonRepeatingWorst(testChar));
         System.out.println(testChar + " (Best): " + stringOps.firstNonRepeatingBest(testChar));
+        List<String> tokens = Arrays.asList("GET", "PUT", "GET", "DELETE", "PUT", "POST", "GET");
+        System.out.println(tokens + " (Approx): " + stringOps.firstNonRepeatingApprox(tokens, 1024));
     }
     
     // ==================== STRING REVERSAL ====================
@@ -118,27 +121,14 @@ public class StringOperations {
     }
     
     /**
-     * BEST APPROACH: Using character count array
+     * BEST APPROACH: Using character counts
+     * Any text, not only lowercase letters: a 256-entry count array for Latin-1
+     * strings, code-point counts otherwise (see Anagrams)
      * Time Complexity: O(n)
-     * Space Complexity: O(1) - fixed size array
+     * Space Complexity: O(1) for Latin-1, O(distinct characters) otherwise
      */
     public boolean isAnagramBest(String str1, String str2) {
-        if (str1.length() != str2.length()) return false;
-        
-        int[] charCount = new int[26]; // Assuming lowercase letters
-        
-        for (char c : str1.toCharArray()) {
-            charCount[c - 'a']++;
-        }
-        
-        for (char c : str2.toCharArray()) {
-            charCount[c - 'a']--;
-            if (charCount[c - 'a'] < 0) {
-                return false;
-            }
-        }
-        
-        return true;
+        return Anagrams.isAnagram(str1, str2);
     }
     
     // ==================== FIRST NON-REPEATING CHARACTER ====================
@@ -187,6 +177,29 @@ public class StringOperations {
         return '\0'; // No non-repeating character found
     }
     
+    /**
+     * APPROXIMATE APPROACH: Count-Min Sketch over a stream of tokens
+     * For inputs whose distinct tokens do not fit in a map. Two passes over a
+     * re-iterable source (e.g. the lines of a file): count into the sketch, then
+     * return the first token whose estimate is 1. The sketch never undercounts,
+     * so a returned token really occurs once; with many more distinct tokens than
+     * width, collisions can hide a unique token and a later one (or null) is returned.
+     * Time Complexity: O(n * depth)
+     * Space Complexity: O(width * depth), independent of the number of distinct tokens
+     */
+    public String firstNonRepeatingApprox(Iterable<? extends CharSequence> tokens, int width) {
+        CountMinSketch sketch = new CountMinSketch(width, 4);
+        for (CharSequence token : tokens) {
+            sketch.add(token);
+        }
+        for (CharSequence token : tokens) {
+            if (sketch.estimate(token) == 1) {
+                return token.toString();
+            }
+        }
+        return null; // No (detectably) non-repeating token found
+    }
+    
     // ==================== LONGEST SUBSTRING WITHOUT REPEATING CHARACTERS ====================
     
     /**
@@ -220,24 +233,28 @@ public class StringOperations {
     }
     
     /**
-     * BEST APPROACH: Sliding window with HashSet
+     * BEST APPROACH: Sliding window with a last-index table
+     * For every char the table holds 1 + where it was last seen, so on a repeat the
+     * window start jumps past the previous occurrence; no boxing. The table is local
+     * to the call and sized by the largest char of the input (128 ints for ASCII).
+     * Counts chars like the worst approach; LongestUniqueSubstring counts code points
+     * and also scans Readers and mapped UTF-8 files.
      * Time Complexity: O(n)
-     * Space Complexity: O(min(m, n)) where m is charset size
+     * Space Complexity: O(1) - the table is bounded by the charset, not by n
      */
     public int lengthOfLongestSubstringBest(String str) {
-        Set<Character> set = new HashSet<>();
+        char maxChar = 0;
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) > maxChar) maxChar = str.charAt(i);
+        }
+        int[] lastSeen = new int[maxChar + 1];
         int maxLength = 0;
-        int left = 0, right = 0;
         
-        while (right < str.length()) {
-            if (!set.contains(str.charAt(right))) {
-                set.add(str.charAt(right));
-                right++;
-                maxLength = Math.max(maxLength, right - left);
-            } else {
-                set.remove(str.charAt(left));
-                left++;
-            }
+        for (int left = 0, right = 0; right < str.length(); right++) {
+            char c = str.charAt(right);
+            left = Math.max(left, lastSeen[c]);
+            lastSeen[c] = right + 1;
+            maxLength = Math.max(maxLength, right + 1 - left);
         }
         
         return maxLength;
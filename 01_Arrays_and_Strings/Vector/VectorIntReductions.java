@@ -0,0 +1,101 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD reductions for IntReductions
+ * Processes SPECIES_PREFERRED lanes at a time (8 ints with AVX2, 16 with
+ * AVX-512), keeps one accumulator per lane and folds the lanes together once
+ * at the end; the tail that does not fill a vector is done with scalar code.
+ *
+ * sum() cannot widen every lane to long without halving the throughput, so
+ * each int is split into its low 16 bits (0..65535) and high 16 bits
+ * (-32768..32767), summed in int lanes over blocks short enough that neither
+ * can overflow, and hi * 65536 + lo is added to a long after each block.
+ *
+ * Kept in its own directory so that javac *.java in 01_Arrays_and_Strings builds
+ * without the incubator module. Build it next to the other classes:
+ *   javac *.java && javac --add-modules jdk.incubator.vector -cp . -d . Vector/VectorIntReductions.java
+ *   java --add-modules jdk.incubator.vector ArrayOperations
+ * Without it IntReductions.best() falls back to IntReductions.Scalar.
+ */
+public final class VectorIntReductions implements IntReductions {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int L = SPECIES.length();
+    // vectors per sum block: 65535 * BLOCK * 16 lanes < 2^31
+    private static final int BLOCK = 1024;
+
+    private static final IntReductions SCALAR = new IntReductions.Scalar();
+
+    public int max(int[] a, int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+        IntVector max = IntVector.broadcast(SPECIES, Integer.MIN_VALUE);
+        for (int i = from; i < bound; i += L) {
+            max = max.max(IntVector.fromArray(SPECIES, a, i));
+        }
+        return Math.max(max.reduceLanes(VectorOperators.MAX), SCALAR.max(a, bound, to));
+    }
+
+    public int min(int[] a, int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+        IntVector min = IntVector.broadcast(SPECIES, Integer.MAX_VALUE);
+        for (int i = from; i < bound; i += L) {
+            min = min.min(IntVector.fromArray(SPECIES, a, i));
+        }
+        return Math.min(min.reduceLanes(VectorOperators.MIN), SCALAR.min(a, bound, to));
+    }
+
+    public long sum(int[] a, int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+        long total = 0;
+        for (int i = from; i < bound; ) {
+            int blockEnd = (int) Math.min(bound, i + (long) BLOCK * L);
+            IntVector lo = IntVector.zero(SPECIES);
+            IntVector hi = IntVector.zero(SPECIES);
+            for (; i < blockEnd; i += L) {
+                IntVector v = IntVector.fromArray(SPECIES, a, i);
+                lo = lo.add(v.and(0xFFFF));
+                hi = hi.add(v.lanewise(VectorOperators.ASHR, 16));
+            }
+            total += ((long) hi.reduceLanes(VectorOperators.ADD) << 16) + lo.reduceLanes(VectorOperators.ADD);
+        }
+        return total + SCALAR.sum(a, bound, to);
+    }
+
+    public int xor(int[] a, int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+        IntVector x = IntVector.zero(SPECIES);
+        for (int i = from; i < bound; i += L) {
+            x = x.lanewise(VectorOperators.XOR, IntVector.fromArray(SPECIES, a, i));
+        }
+        return x.reduceLanes(VectorOperators.XOR) ^ SCALAR.xor(a, bound, to);
+    }
+
+    // per lane: the largest value and the first index it was seen at (strict >)
+    public int argmax(int[] a, int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+        if (bound == from) {
+            return SCALAR.argmax(a, from, to);
+        }
+        IntVector index = IntVector.zero(SPECIES).addIndex(1).add(from);
+        IntVector best = IntVector.fromArray(SPECIES, a, from);
+        IntVector bestIndex = index;
+        for (int i = from + L; i < bound; i += L) {
+            index = index.add(L);
+            IntVector v = IntVector.fromArray(SPECIES, a, i);
+            VectorMask<Integer> greater = v.compare(VectorOperators.GT, best);
+            best = best.blend(v, greater);
+            bestIndex = bestIndex.blend(index, greater);
+        }
+        int max = best.reduceLanes(VectorOperators.MAX);
+        int result = bestIndex.reduceLanes(VectorOperators.MIN, best.compare(VectorOperators.EQ, max));
+        for (int i = bound; i < to; i++) {
+            if (a[i] > max) {
+                max = a[i];
+                result = i;
+            }
+        }
+        return result;
+    }
+}
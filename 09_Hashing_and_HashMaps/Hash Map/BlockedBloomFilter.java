@@ -0,0 +1,96 @@
+/**
+ * Cache-blocked ("split block") Bloom filter
+ * The bit array is cut into 256-bit blocks of eight 32-bit words. A key picks
+ * one block and sets exactly one bit in each of its 8 words, so add and
+ * mightContain touch a single cache line and run without data-dependent
+ * branches. The price is a slightly higher false positive rate than a
+ * classic Bloom filter of the same size (about 1.3% at 10 bits per key).
+ *
+ * Keys are given as 32-bit hashes (function.HashMap passes its node hash);
+ * they are stretched to 64 bits internally: the high half picks the block,
+ * the low half times 8 odd salts picks the bit in each word.
+ *
+ * Time Complexity: O(1) per add/mightContain (one cache line)
+ * Space Complexity: bitsPerKey * expectedKeys bits
+ */
+public class BlockedBloomFilter {
+    private static final int WORDS_PER_BLOCK = 8; //8 * 32 = 256 bits
+    private static final int MAX_BITS_PER_KEY = 64;
+    private static final int SALT[] = {0x47B6137B, 0x44974D91, 0x8824AD5B, 0xA2B7289D,
+                                       0x705495C7, 0x2DF1424B, 0x9EFC4947, 0x5C6BFB31};
+
+    private final int words[];
+    private final int blocks;
+
+    public BlockedBloomFilter(int expectedKeys, int bitsPerKey){
+        long totalBits = Math.max(256L, (long)expectedKeys * bitsPerKey);
+        blocks = (int)Math.min(Integer.MAX_VALUE / WORDS_PER_BLOCK, (totalBits + 255) / 256);
+        words = new int[blocks * WORDS_PER_BLOCK];
+    }
+
+    //expected false positive rate: a block holds Poisson(256 / bitsPerKey) keys, and a miss
+    //is a false positive when its bit is set in all 8 words of the block
+    public static double falsePositiveRate(int bitsPerKey){
+        double keysPerBlock = 256.0 / bitsPerKey;
+        double p = Math.exp(-keysPerBlock); //P(j keys in the block), from j = 0
+        double rate = 0;
+        for(int j = 0; j < 20 * keysPerBlock + 100; j++){
+            if(j > 0){
+                p *= keysPerBlock / j;
+            }
+            rate += p * Math.pow(1 - Math.pow(31.0 / 32, j), WORDS_PER_BLOCK);
+        }
+        return rate;
+    }
+
+    //fewest bits per key that keep the false positive rate at or below fpp (10 gives about 1.3%)
+    public static int bitsPerKeyFor(double fpp){
+        if(!(fpp > 0 && fpp < 1)){
+            throw new IllegalArgumentException("fpp must be in (0, 1): " + fpp);
+        }
+        for(int bitsPerKey = 1; bitsPerKey <= MAX_BITS_PER_KEY; bitsPerKey++){
+            if(falsePositiveRate(bitsPerKey) <= fpp){
+                return bitsPerKey;
+            }
+        }
+        throw new IllegalArgumentException("fpp " + fpp + " needs more than " + MAX_BITS_PER_KEY + " bits per key");
+    }
+
+    //murmur3 fmix64
+    private static long mix(long x){
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB9FE1A85EC53L;
+        return x ^ (x >>> 33);
+    }
+
+    private int blockOf(long h){
+        return (int)(((h >>> 32) * blocks) >>> 32) * WORDS_PER_BLOCK;
+    }
+
+    public void add(int hash){
+        long h = mix(hash);
+        int base = blockOf(h);
+        int x = (int)h;
+        for(int i = 0; i < WORDS_PER_BLOCK; i++){
+            words[base + i] |= 1 << ((x * SALT[i]) >>> 27);
+        }
+    }
+
+    //false = definitely absent, true = probably present
+    public boolean mightContain(int hash){
+        long h = mix(hash);
+        int base = blockOf(h);
+        int x = (int)h;
+        int all = 1;
+        for(int i = 0; i < WORDS_PER_BLOCK; i++){
+            all &= words[base + i] >>> ((x * SALT[i]) >>> 27);
+        }
+        return all != 0;
+    }
+
+    public long sizeInBits(){
+        return (long)words.length * 32;
+    }
+}
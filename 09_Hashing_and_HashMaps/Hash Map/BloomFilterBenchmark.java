@@ -0,0 +1,71 @@
+import java.util.*;
+
+/**
+ * containsKey on a miss-heavy workload, with and without the Bloom filter
+ * Fills function.HashMap with n keys, then times containsKey over a mix where
+ * only hitPercent% of the probes are present (the typical "have we seen this
+ * id?" check). Prints ns/op (best of 5) and the measured false positive rate.
+ *
+ * Run:   javac *.java && java -Xmx4g BloomFilterBenchmark [keys] [hit percent]
+ * (default 2M keys, 5% hits)
+ */
+public class BloomFilterBenchmark {
+
+    public static void main(String args[]){
+        int n = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 2_000_000;
+        int hitPercent = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Random random = new Random(42);
+        Integer keys[] = new Integer[n];
+        for(int i = 0; i < n; i++){
+            keys[i] = random.nextInt() | 1; //odd values are present
+        }
+        Integer probes[] = new Integer[n];
+        for(int i = 0; i < n; i++){
+            Integer key = keys[random.nextInt(n)];
+            probes[i] = random.nextInt(100) < hitPercent ? key : key ^ 1; //even values are absent
+        }
+
+        function.HashMap<Integer, Integer> plain = new function.HashMap<>();
+        function.HashMap<Integer, Integer> filtered = new function.HashMap<>();
+        filtered.enableBloomFilter(10);
+        for(Integer key : keys){
+            plain.put(key, key);
+            filtered.put(key, key);
+        }
+
+        BlockedBloomFilter filter = new BlockedBloomFilter(n, 10);
+        for(Integer key : keys) filter.add(key);
+        int falsePositives = 0, absent = 0;
+        for(Integer key : probes){
+            if((key & 1) == 0){
+                absent++;
+                if(filter.mightContain(key)) falsePositives++;
+            }
+        }
+
+        System.out.printf("n=%d, %d%% hits, filter at 10 bits/key: %.2f%% false positives%n",
+                n, hitPercent, 100.0 * falsePositives / Math.max(1, absent));
+        System.out.printf("%-14s %10s%n", "engine", "ns/op");
+        for(int round = 0; round < 2; round++){//the first round is warm-up
+            double p = best(plain, probes), f = best(filtered, probes);
+            if(round == 1){
+                System.out.printf("%-14s %10.1f%n", "no filter", p);
+                System.out.printf("%-14s %10.1f%n", "bloom filter", f);
+            }
+        }
+    }
+
+    private static double best(function.HashMap<Integer, Integer> map, Integer probes[]){
+        long best = Long.MAX_VALUE;
+        int found = 0;
+        for(int run = 0; run < 5; run++){
+            long t = System.nanoTime();
+            for(Integer key : probes){
+                if(map.containsKey(key)) found++;
+            }
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        if(found == -1) System.out.println(); //keeps the lookups from being optimised away
+        return (double)best / probes.length;
+    }
+}
@@ -0,0 +1,382 @@
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Size-bounded cache with W-TinyLFU eviction, stored in a function.HashMap
+ * The map only indexes the entries; where an entry lives in the eviction
+ * policy is tracked by intrusive doubly linked queues:
+ *
+ * - Window (1% of the weight): plain LRU, absorbs bursts of brand-new keys
+ * - Main (99%), segmented LRU: probation (20%) and protected (80%).
+ *   A hit in probation promotes the entry to protected
+ * - Admission (TinyLFU): an entry pushed out of the window only gets into main
+ *   if a count-min sketch says it is used more often than the entry main would
+ *   evict for it; otherwise the newcomer itself is dropped
+ * - The sketch uses 4-bit counters that are all halved after 10 x width
+ *   increments, so old popularity fades
+ *
+ * Optional expire-after-write, per-entry weights and hit/miss/eviction counters.
+ * Not thread-safe.
+ *
+ * Time Complexity: O(1) expected per operation
+ * Space Complexity: O(n) entries + a fixed-size sketch (4 rows of width = max entries)
+ */
+public class BoundedCache<K, V> {
+    private static final int WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+
+    private class Entry{
+        final K key;
+        V value;
+        int weight;
+        long writeTime;
+        int queue;
+        Entry prev, next;
+        Entry(K key){
+            this.key = key;
+        }
+    }
+
+    //LRU order: head = least recently used
+    private class AccessQueue{
+        Entry head, tail;
+        long weight;
+
+        void addLast(Entry e){
+            e.prev = tail;
+            e.next = null;
+            if(tail == null) head = e; else tail.next = e;
+            tail = e;
+            weight += e.weight;
+        }
+
+        void unlink(Entry e){
+            if(e.prev == null) head = e.next; else e.prev.next = e.next;
+            if(e.next == null) tail = e.prev; else e.next.prev = e.prev;
+            e.prev = e.next = null;
+            weight -= e.weight;
+        }
+    }
+
+    private final function.HashMap<K, Entry> data = new function.HashMap<>();
+    private final AccessQueue queues[];
+    private final FrequencySketch sketch;
+    private final ToIntBiFunction<K, V> weigher;
+    private final long maximum, maxWindow, maxMain, maxProtected;
+    private long expireAfterWriteNanos = -1;
+    private LongSupplier ticker = System::nanoTime;
+
+    private long hitCount, missCount, evictionCount;
+
+    //every entry weighs 1: maximumSize is a maximum number of entries
+    public BoundedCache(long maximumSize){
+        this(maximumSize, (k, v) -> 1);
+    }
+
+    public BoundedCache(long maximumWeight, ToIntBiFunction<K, V> weigher){
+        if(maximumWeight <= 0){
+            throw new IllegalArgumentException("maximumWeight must be positive: " + maximumWeight);
+        }
+        this.maximum = maximumWeight;
+        this.maxWindow = Math.max(1, maximumWeight / 100);
+        this.maxMain = maximumWeight - maxWindow;
+        this.maxProtected = (long)(maxMain * 0.8);
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch((int)Math.min(maximumWeight, 1 << 24));
+        this.queues = newQueues(3);
+        for(int i = 0; i < queues.length; i++){
+            queues[i] = new AccessQueue();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private AccessQueue[] newQueues(int count){
+        return (AccessQueue[]) new BoundedCache<?, ?>.AccessQueue[count];
+    }
+
+    //entries older than duration (since their last put) are treated as absent
+    public BoundedCache<K, V> expireAfterWrite(long duration, TimeUnit unit){
+        this.expireAfterWriteNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    //time source for expiry, e.g. a fake clock in a replay
+    public BoundedCache<K, V> ticker(LongSupplier ticker){
+        this.ticker = ticker;
+        return this;
+    }
+
+    private boolean isExpired(Entry e, long now){
+        return expireAfterWriteNanos >= 0 && now - e.writeTime >= expireAfterWriteNanos;
+    }
+
+    public V get(K key){
+        sketch.increment(key);
+        Entry e = data.get(key);
+        if(e != null && isExpired(e, ticker.getAsLong())){
+            removeEntry(e);
+            e = null;
+        }
+        if(e == null){
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        onAccess(e);
+        return e.value;
+    }
+
+    //true if key is cached; does not count as a use of the key
+    public boolean containsKey(K key){
+        Entry e = data.get(key);
+        return e != null && !isExpired(e, ticker.getAsLong());
+    }
+
+    public void put(K key, V value){
+        int weight = weigher.applyAsInt(key, value);
+        if(weight < 0){
+            throw new IllegalArgumentException("negative weight for key " + key);
+        }
+        long now = ticker.getAsLong();
+        Entry e = data.get(key);
+        if(e != null){//exists: reweigh in place
+            AccessQueue q = queues[e.queue];
+            q.unlink(e);
+            e.value = value;
+            e.weight = weight;
+            e.writeTime = now;
+            q.addLast(e);
+            onAccess(e);
+        }
+        else{
+            sketch.increment(key);
+            e = new Entry(key);
+            e.value = value;
+            e.weight = weight;
+            e.writeTime = now;
+            e.queue = WINDOW;
+            data.put(key, e);
+            queues[WINDOW].addLast(e);
+        }
+        evict();
+    }
+
+    public V remove(K key){
+        Entry e = data.get(key);
+        if(e == null){
+            return null;
+        }
+        removeEntry(e);
+        return e.value;
+    }
+
+    private void removeEntry(Entry e){
+        queues[e.queue].unlink(e);
+        data.remove(e.key);
+    }
+
+    private void onAccess(Entry e){
+        AccessQueue q = queues[e.queue];
+        q.unlink(e);
+        if(e.queue == PROBATION){//second hit: promote
+            e.queue = PROTECTED;
+            queues[PROTECTED].addLast(e);
+        }
+        else{
+            q.addLast(e);
+        }
+        while(queues[PROTECTED].weight > maxProtected){
+            Entry demoted = queues[PROTECTED].head;
+            queues[PROTECTED].unlink(demoted);
+            demoted.queue = PROBATION;
+            queues[PROBATION].addLast(demoted);
+        }
+    }
+
+    private void evict(){
+        AccessQueue window = queues[WINDOW];
+        while(window.weight > maxWindow){
+            Entry candidate = window.head;
+            window.unlink(candidate);
+            admit(candidate);
+        }
+        //a put that grew an entry in main can leave main over its share
+        while(mainWeight() > maxMain){
+            evictEntry(mainVictim());
+        }
+    }
+
+    private long mainWeight(){
+        return queues[PROBATION].weight + queues[PROTECTED].weight;
+    }
+
+    private Entry mainVictim(){
+        return queues[PROBATION].head != null ? queues[PROBATION].head : queues[PROTECTED].head;
+    }
+
+    //TinyLFU: the window's candidate replaces main victims only while it is more popular
+    private void admit(Entry candidate){
+        if(candidate.weight > maxMain){
+            dropEntry(candidate);
+            return;
+        }
+        int candidateFreq = sketch.frequency(candidate.key);
+        while(mainWeight() + candidate.weight > maxMain){
+            Entry victim = mainVictim();
+            if(candidateFreq > sketch.frequency(victim.key)){
+                evictEntry(victim);
+            }
+            else{
+                dropEntry(candidate);
+                return;
+            }
+        }
+        candidate.queue = PROBATION;
+        queues[PROBATION].addLast(candidate);
+    }
+
+    private void evictEntry(Entry e){
+        queues[e.queue].unlink(e);
+        dropEntry(e);
+    }
+
+    //e is already unlinked from its queue
+    private void dropEntry(Entry e){
+        data.remove(e.key);
+        evictionCount++;
+    }
+
+    //removes every expired entry now instead of waiting for it to be read
+    public void cleanUp(){
+        if(expireAfterWriteNanos < 0){
+            return;
+        }
+        long now = ticker.getAsLong();
+        for(AccessQueue q : queues){
+            Entry e = q.head;
+            while(e != null){
+                Entry next = e.next;
+                if(isExpired(e, now)){
+                    removeEntry(e);
+                }
+                e = next;
+            }
+        }
+    }
+
+    public int size(){
+        return data.size();
+    }
+
+    public long weightedSize(){
+        return queues[WINDOW].weight + mainWeight();
+    }
+
+    public long maximumWeight(){
+        return maximum;
+    }
+
+    public long hitCount(){
+        return hitCount;
+    }
+
+    public long missCount(){
+        return missCount;
+    }
+
+    public long evictionCount(){
+        return evictionCount;
+    }
+
+    public double hitRate(){
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double)hitCount / requests;
+    }
+
+    /**
+     * Count-min sketch with 4 rows of 4-bit counters (two per byte)
+     * frequency() is the minimum of the 4 counters of a key, so it can only
+     * over-estimate. After sampleSize increments every counter is halved.
+     */
+    static final class FrequencySketch{
+        private static final long SEEDS[] = {0x97CB3127L, 0xB8DFE53DL, 0xA1A9F0B5L, 0xE4A72D9BL};
+
+        private final byte table[][];
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize){
+            int width = Integer.highestOneBit(Math.max(16, maximumSize - 1) << 1);
+            this.table = new byte[4][width / 2];
+            this.mask = width - 1;
+            this.sampleSize = 10 * width;
+        }
+
+        private int index(int h, int row){
+            long x = (h + SEEDS[row]) * SEEDS[row];
+            return (int)(x ^ (x >>> 32)) & mask;
+        }
+
+        private int get(int row, int i){
+            return (table[row][i >>> 1] >>> ((i & 1) << 2)) & 0xF;
+        }
+
+        void increment(Object key){
+            int h = spread(key.hashCode());
+            boolean added = false;
+            for(int row = 0; row < 4; row++){
+                int i = index(h, row);
+                if(get(row, i) < 15){
+                    table[row][i >>> 1] += (byte)(1 << ((i & 1) << 2));
+                    added = true;
+                }
+            }
+            if(added && ++additions == sampleSize){
+                reset();
+            }
+        }
+
+        int frequency(Object key){
+            int h = spread(key.hashCode());
+            int min = 15;
+            for(int row = 0; row < 4; row++){
+                min = Math.min(min, get(row, index(h, row)));
+            }
+            return min;
+        }
+
+        //halves every counter (both nibbles of each byte at once)
+        private void reset(){
+            for(byte row[] : table){
+                for(int i = 0; i < row.length; i++){
+                    row[i] = (byte)((row[i] >>> 1) & 0x77);
+                }
+            }
+            additions /= 2;
+        }
+
+        private static int spread(int h){
+            h ^= h >>> 16;
+            h *= 0x45D9F3B;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    public static void main(String args[]){
+        BoundedCache<String, Integer> cache = new BoundedCache<>(3);
+        cache.put("India", 135);
+        cache.put("China", 140);
+        cache.put("USA", 40);
+        cache.get("India");
+        cache.get("India");
+        cache.put("UK", 20); //over the limit: TinyLFU keeps the popular India
+
+        for(String key : new String[]{"India", "China", "USA", "UK"}){
+            System.out.println(key + " -> " + cache.get(key));
+        }
+        System.out.printf("hits=%d misses=%d evictions=%d hitRate=%.2f%n",
+                cache.hitCount(), cache.missCount(), cache.evictionCount(), cache.hitRate());
+    }
+}
@@ -0,0 +1,106 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Trace replay: hit rate of BoundedCache (W-TinyLFU) vs LRU vs the optimum
+ * Each request is a key id: on a miss the key is loaded and put into the cache.
+ * "optimal" is Belady's offline policy (evict the key used furthest in the
+ * future), the upper bound for any cache of that size.
+ *
+ * Run:   javac *.java && java CacheTraceBenchmark                  (synthetic Zipf trace)
+ *        javac *.java && java CacheTraceBenchmark trace.txt        (one integer key per line)
+ */
+public class CacheTraceBenchmark {
+
+    public static void main(String args[]) throws IOException{
+        int trace[] = args.length > 0 ? readTrace(Paths.get(args[0])) : zipfTrace(2_000_000, 100_000, 0.99, 42);
+        int distinct = (int)Arrays.stream(trace).distinct().count();
+        System.out.printf("%d requests, %d distinct keys%n", trace.length, distinct);
+        System.out.printf("%-10s %12s %12s %12s%n", "cache size", "w-tinylfu", "lru", "optimal");
+        for(double fraction : new double[]{0.001, 0.01, 0.05, 0.10}){
+            int size = Math.max(1, (int)(distinct * fraction));
+            System.out.printf("%-10d %11.2f%% %11.2f%% %11.2f%%%n", size,
+                    100 * tinyLfu(trace, size), 100 * lru(trace, size), 100 * optimal(trace, size));
+        }
+    }
+
+    private static int[] readTrace(Path path) throws IOException{
+        try(BufferedReader in = Files.newBufferedReader(path)){
+            return in.lines().map(String::trim).filter(line -> !line.isEmpty()).mapToInt(Integer::parseInt).toArray();
+        }
+    }
+
+    //requests drawn from a Zipf(s) distribution; ranks are mapped to random ids
+    private static int[] zipfTrace(int requests, int keys, double s, long seed){
+        double cdf[] = new double[keys];
+        double total = 0;
+        for(int rank = 0; rank < keys; rank++){
+            total += 1.0 / Math.pow(rank + 1, s);
+            cdf[rank] = total;
+        }
+        int ids[] = new int[keys];
+        Random random = new Random(seed);
+        for(int i = 0; i < keys; i++){
+            ids[i] = random.nextInt();
+        }
+        int trace[] = new int[requests];
+        for(int i = 0; i < requests; i++){
+            int rank = Arrays.binarySearch(cdf, random.nextDouble() * total);
+            trace[i] = ids[rank < 0 ? Math.min(keys - 1, -rank - 1) : rank];
+        }
+        return trace;
+    }
+
+    private static double tinyLfu(int trace[], int size){
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(size);
+        for(int key : trace){
+            if(cache.get(key) == null){
+                cache.put(key, key);
+            }
+        }
+        return cache.hitRate();
+    }
+
+    @SuppressWarnings("serial")
+    private static double lru(int trace[], int size){
+        LinkedHashMap<Integer, Integer> cache = new LinkedHashMap<Integer, Integer>(16, 0.75f, true){
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest){
+                return size() > size;
+            }
+        };
+        long hits = 0;
+        for(int key : trace){
+            if(cache.get(key) != null){
+                hits++;
+            }
+            else{
+                cache.put(key, key);
+            }
+        }
+        return (double)hits / trace.length;
+    }
+
+    //Belady: keep the keys whose next use is soonest
+    private static double optimal(int trace[], int size){
+        int n = trace.length;
+        int nextUse[] = new int[n];
+        java.util.HashMap<Integer, Integer> seen = new java.util.HashMap<>();
+        for(int i = n - 1; i >= 0; i--){
+            Integer next = seen.put(trace[i], i);
+            nextUse[i] = next == null ? n + i : next; //n + i = never again, still unique
+        }
+        TreeSet<Integer> cached = new TreeSet<>(); //next-use positions of the cached keys
+        long hits = 0;
+        for(int i = 0; i < n; i++){
+            if(cached.remove(i)){//the cached key's next use was this request
+                hits++;
+            }
+            cached.add(nextUse[i]);
+            if(cached.size() > size){
+                cached.pollLast();
+            }
+        }
+        return (double)hits / n;
+    }
+}
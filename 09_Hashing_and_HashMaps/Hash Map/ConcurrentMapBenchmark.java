@@ -0,0 +1,102 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded throughput: StripedHashMap vs java.util.concurrent.ConcurrentHashMap
+ * Every thread runs random operations on a shared, pre-filled map for a fixed
+ * time. Writes are half puts and half removes so the size stays stable.
+ *
+ * Run:   javac *.java && java -Xmx4g ConcurrentMapBenchmark [seconds per run] [key count]
+ */
+public class ConcurrentMapBenchmark {
+    private static final int THREADS[] = {1, 4, 16, 64};
+    private static final int READ_PERCENT[] = {90, 50};
+
+    //common surface for the two maps so the worker loop is written once
+    private interface Target {
+        Integer get(Integer key);
+        void put(Integer key, Integer value);
+        void remove(Integer key);
+    }
+
+    public static void main(String args[]) throws InterruptedException{
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 2.0;
+        int keyCount = args.length > 1 ? Integer.parseInt(args[1].replace("_", "")) : 1_000_000;
+        Integer keys[] = new Integer[keyCount * 2]; //half of them are inserted up front
+        for(int i = 0; i < keys.length; i++){
+            keys[i] = i;
+        }
+
+        System.out.printf("%-8s %-8s %16s %16s%n", "threads", "read%", "striped(Mops/s)", "jdk-chm(Mops/s)");
+        for(int readPercent : READ_PERCENT){
+            for(int threads : THREADS){
+                StripedHashMap<Integer, Integer> striped = new StripedHashMap<>();
+                ConcurrentHashMap<Integer, Integer> chm = new ConcurrentHashMap<>();
+                for(int i = 0; i < keyCount; i++){
+                    striped.put(keys[i * 2], i);
+                    chm.put(keys[i * 2], i);
+                }
+                double a = run(new Target() {
+                    public Integer get(Integer key){ return striped.get(key); }
+                    public void put(Integer key, Integer value){ striped.put(key, value); }
+                    public void remove(Integer key){ striped.remove(key); }
+                }, keys, threads, readPercent, seconds);
+                double b = run(new Target() {
+                    public Integer get(Integer key){ return chm.get(key); }
+                    public void put(Integer key, Integer value){ chm.put(key, value); }
+                    public void remove(Integer key){ chm.remove(key); }
+                }, keys, threads, readPercent, seconds);
+                System.out.printf("%-8d %-8d %16.2f %16.2f%n", threads, readPercent, a, b);
+            }
+        }
+    }
+
+    private static double run(Target map, Integer keys[], int threads, int readPercent, double seconds) throws InterruptedException{
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long runNanos = (long)(seconds * 1e9);
+        Thread workers[] = new Thread[threads];
+        for(int t = 0; t < threads; t++){
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                try{
+                    start.await();
+                }
+                catch(InterruptedException e){
+                    return;
+                }
+                long end = System.nanoTime() + runNanos;
+                while(true){
+                    for(int i = 0; i < 1024; i++){//check the clock once per batch
+                        Integer key = keys[random.nextInt(keys.length)];
+                        int dice = random.nextInt(100);
+                        if(dice < readPercent){
+                            map.get(key);
+                        }
+                        else if((dice & 1) == 0){
+                            map.put(key, dice);
+                        }
+                        else{
+                            map.remove(key);
+                        }
+                    }
+                    done += 1024;
+                    if(System.nanoTime() >= end){
+                        break;
+                    }
+                }
+                ops.add(done);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for(Thread worker : workers){
+            worker.join();
+        }
+        return ops.sum() / seconds / 1e6;
+    }
+}
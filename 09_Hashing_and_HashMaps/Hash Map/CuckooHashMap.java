@@ -0,0 +1,363 @@
+import java.util.*;
+
+/**
+ * Bucketized cuckoo hash table
+ * Same put/get/remove/containsKey/keySet API as function.HashMap, with a hard
+ * bound on the work a lookup does: a key can only live in one of its two
+ * candidate buckets (4 slots each) or in a small stash, so a lookup compares
+ * at most 2 * 4 + STASH_SIZE stored hashes, whatever the keys look like.
+ *
+ * - Each bucket keeps its 4 hashes in 16 contiguous bytes of hashes[], and a
+ *   key is only read when its full 32-bit hash matched
+ * - Both candidate buckets are derived from the stored hash, so moving an entry
+ *   never calls hashCode() again
+ * - Insert: free slot in either bucket, else random-walk cuckoo kicks (at most
+ *   MAX_KICKS), and an entry still homeless after that goes to the stash;
+ *   a full stash doubles the table
+ * - Keys sharing one 32-bit hash always map to the same two buckets, so at most
+ *   8 of them fit (plus what the stash holds); put() throws IllegalStateException
+ *   beyond that instead of growing forever. function.HashMap (which treeifies such
+ *   chains) is the better choice when keys can be chosen by an attacker.
+ *
+ * Time Complexity: O(1) worst case for get/containsKey/remove, O(1) expected for put
+ * Space Complexity: O(n) - three parallel arrays, no per-entry allocation
+ */
+public class CuckooHashMap<K, V> {
+    private static final int SLOTS = 4; //per bucket
+    private static final int MAX_KICKS = 500;
+    private static final int STASH_SIZE = 8;
+    private static final double MAX_LOAD = 0.9; //4-way buckets go up to ~0.95 before kicks get long
+
+    private int n; //entries, stash included
+    private int bucketMask; //buckets - 1, buckets is a power of two
+    private int threshold;
+    private int hashes[]; //bucket b owns [b*4, b*4+4); 0 = empty slot
+    private Object keys[];
+    private Object values[];
+
+    private final int stashHashes[] = new int[STASH_SIZE];
+    private final Object stashKeys[] = new Object[STASH_SIZE];
+    private final Object stashValues[] = new Object[STASH_SIZE];
+    private int stashSize;
+
+    private final Random random = new Random(0x5EED);
+
+    public CuckooHashMap(){
+        this(16);
+    }
+
+    public CuckooHashMap(int expectedSize){
+        int buckets = 4;
+        while(buckets * SLOTS * MAX_LOAD < expectedSize){
+            buckets <<= 1;
+        }
+        allocate(buckets);
+    }
+
+    private void allocate(int buckets){
+        this.bucketMask = buckets - 1;
+        this.threshold = (int)(buckets * SLOTS * MAX_LOAD);
+        this.hashes = new int[buckets * SLOTS];
+        this.keys = new Object[buckets * SLOTS];
+        this.values = new Object[buckets * SLOTS];
+    }
+
+    //murmur3 finalizer, never returns 0 (0 marks an empty slot)
+    private static int hashfunction(Object key){
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+
+    private int bucket1(int h){
+        return h & bucketMask;
+    }
+
+    //second, independent bucket: the high bits, multiplied again; moved to the neighbour
+    //when it equals bucket1, so every hash has two distinct buckets at any table size
+    private int bucket2(int h){
+        int b = ((h >>> 16 | h << 16) * 0x9E3779B9) & bucketMask;
+        return b == bucket1(h) ? b ^ 1 : b;
+    }
+
+    //slot of key in bucket b, -1 if absent
+    private int findInBucket(int b, int h, Object key){
+        for(int i = b * SLOTS, end = i + SLOTS; i < end; i++){
+            if(hashes[i] == h && key.equals(keys[i])){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int findSlot(Object key, int h){
+        int slot = findInBucket(bucket1(h), h, key);
+        return slot != -1 ? slot : findInBucket(bucket2(h), h, key);
+    }
+
+    private int findInStash(Object key, int h){
+        for(int i = 0; i < stashSize; i++){
+            if(stashHashes[i] == h && key.equals(stashKeys[i])){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //entries whose stored hash is exactly h, in both candidate buckets
+    private int sameHash(int h){
+        int count = 0;
+        int b1 = bucket1(h), b2 = bucket2(h);
+        for(int i = 0; i < SLOTS; i++){
+            if(hashes[b1 * SLOTS + i] == h) count++;
+            if(hashes[b2 * SLOTS + i] == h) count++;
+        }
+        return count;
+    }
+
+    private int freeSlot(int b){
+        for(int i = b * SLOTS, end = i + SLOTS; i < end; i++){
+            if(hashes[i] == 0){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void put(K key, V value){
+        int h = hashfunction(key);
+        int slot = findSlot(key, h);
+        if(slot != -1){//exists
+            values[slot] = value;
+            return;
+        }
+        int s = findInStash(key, h);
+        if(s != -1){
+            stashValues[s] = value;
+            return;
+        }
+        if(stashSize == STASH_SIZE && sameHash(h) >= 2 * SLOTS){
+            throw new IllegalStateException("too many keys with hash " + h + ": both buckets and the stash are full");
+        }
+        if(n >= threshold){
+            grow();
+        }
+        n++;
+        insert(h, key, value);
+    }
+
+    //places a new entry; never fails, the table grows instead
+    private void insert(int h, Object key, Object value){
+        while(true){
+            int free = freeSlot(bucket1(h));
+            if(free == -1){
+                free = freeSlot(bucket2(h));
+            }
+            if(free != -1){
+                hashes[free] = h;
+                keys[free] = key;
+                values[free] = value;
+                return;
+            }
+            //random walk: evict a random entry of one of the two buckets and re-home it
+            int b = random.nextBoolean() ? bucket1(h) : bucket2(h);
+            for(int kick = 0; kick < MAX_KICKS; kick++){
+                int victim = b * SLOTS + random.nextInt(SLOTS);
+                int vh = hashes[victim];
+                Object vk = keys[victim], vv = values[victim];
+                hashes[victim] = h;
+                keys[victim] = key;
+                values[victim] = value;
+                h = vh;
+                key = vk;
+                value = vv;
+                b = bucket1(h) == b ? bucket2(h) : bucket1(h); //the victim's other bucket
+                free = freeSlot(b);
+                if(free != -1){
+                    hashes[free] = h;
+                    keys[free] = key;
+                    values[free] = value;
+                    return;
+                }
+            }
+            if(stashSize < STASH_SIZE){
+                stashHashes[stashSize] = h;
+                stashKeys[stashSize] = key;
+                stashValues[stashSize++] = value;
+                return;
+            }
+            grow(); //the homeless entry is retried in the bigger table
+        }
+    }
+
+    private void grow(){
+        int oldHashes[] = hashes;
+        Object oldKeys[] = keys;
+        Object oldValues[] = values;
+        //the stash arrays are refilled by insert(), so move the old entries out first
+        int stashed = stashSize;
+        int sh[] = Arrays.copyOf(stashHashes, stashed);
+        Object sk[] = Arrays.copyOf(stashKeys, stashed);
+        Object sv[] = Arrays.copyOf(stashValues, stashed);
+        Arrays.fill(stashKeys, null);
+        Arrays.fill(stashValues, null);
+        stashSize = 0;
+        allocate((bucketMask + 1) * 2);
+        for(int i = 0; i < oldHashes.length; i++){
+            if(oldHashes[i] != 0){
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+        for(int i = 0; i < stashed; i++){
+            insert(sh[i], sk[i], sv[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key){
+        int h = hashfunction(key);
+        int slot = findSlot(key, h);
+        if(slot != -1){
+            return (V) values[slot];
+        }
+        if(stashSize != 0){
+            int s = findInStash(key, h);
+            return s == -1 ? null : (V) stashValues[s];
+        }
+        return null;
+    }
+
+    public boolean containsKey(K key){
+        int h = hashfunction(key);
+        return findSlot(key, h) != -1 || (stashSize != 0 && findInStash(key, h) != -1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(K key){
+        int h = hashfunction(key);
+        int slot = findSlot(key, h);
+        if(slot != -1){
+            V old = (V) values[slot];
+            hashes[slot] = 0;
+            keys[slot] = null;
+            values[slot] = null;
+            n--;
+            unstashInto(slot);
+            return old;
+        }
+        int s = findInStash(key, h);
+        if(s == -1){//key not found
+            return null;
+        }
+        V old = (V) stashValues[s];
+        stashSize--;
+        stashHashes[s] = stashHashes[stashSize];
+        stashKeys[s] = stashKeys[stashSize];
+        stashValues[s] = stashValues[stashSize];
+        stashKeys[stashSize] = null;
+        stashValues[stashSize] = null;
+        n--;
+        return old;
+    }
+
+    //a freed slot may give a stashed entry its bucket back
+    private void unstashInto(int slot){
+        int b = slot / SLOTS;
+        for(int i = 0; i < stashSize; i++){
+            int h = stashHashes[i];
+            if(bucket1(h) == b || bucket2(h) == b){
+                hashes[slot] = h;
+                keys[slot] = stashKeys[i];
+                values[slot] = stashValues[i];
+                stashSize--;
+                stashHashes[i] = stashHashes[stashSize];
+                stashKeys[i] = stashKeys[stashSize];
+                stashValues[i] = stashValues[stashSize];
+                stashKeys[stashSize] = null;
+                stashValues[stashSize] = null;
+                return;
+            }
+        }
+    }
+
+    public int size(){
+        return n;
+    }
+
+    public boolean isEmpty(){
+        return n == 0;
+    }
+
+    //entries that did not fit in either bucket; lookups scan these after the two buckets
+    public int stashSize(){
+        return stashSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ArrayList<K> keySet(){
+        ArrayList<K> result = new ArrayList<>(n);
+        for(int i = 0; i < hashes.length; i++){
+            if(hashes[i] != 0){
+                result.add((K) keys[i]);
+            }
+        }
+        for(int i = 0; i < stashSize; i++){
+            result.add((K) stashKeys[i]);
+        }
+        return result;
+    }
+
+    public static void main(String args[]){
+        CuckooHashMap<String, Integer> map = new CuckooHashMap<>();
+        map.put("India", 135);
+        map.put("China", 140);
+        map.put("USA", 40);
+        map.put("UK", 20);
+
+        ArrayList<String> keys = map.keySet();
+        for(String key : keys){
+            System.out.println(key + " -> " + map.get(key));
+        }
+
+        map.remove("China");
+        System.out.println(map.get("China"));
+
+        //keys that all hash to 0xFD61F419, whose two buckets used to coincide:
+        //2 * SLOTS + STASH_SIZE of them fit, the next put must be refused
+        CuckooHashMap<CollidingKey, Integer> flood = new CuckooHashMap<>();
+        int stored = 0;
+        try{
+            while(stored <= 2 * SLOTS + STASH_SIZE){
+                flood.put(new CollidingKey(stored), stored);
+                stored++;
+            }
+            throw new AssertionError("put accepted " + stored + " keys with one hash");
+        }
+        catch(IllegalStateException e){
+            if(stored != 2 * SLOTS + STASH_SIZE){
+                throw new AssertionError("refused after " + stored + " colliding keys", e);
+            }
+            System.out.println("colliding keys: " + stored + " stored, then " + e.getMessage());
+        }
+    }
+
+    private static final class CollidingKey{
+        final int id;
+
+        CollidingKey(int id){
+            this.id = id;
+        }
+
+        public int hashCode(){
+            return 0xBFFD99F2; //hashfunction() turns it into 0xFD61F419
+        }
+
+        public boolean equals(Object o){
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+    }
+}
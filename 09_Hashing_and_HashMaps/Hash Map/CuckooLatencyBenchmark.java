@@ -0,0 +1,81 @@
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Lookup tail latency: cuckoo vs chaining vs linear probing
+ * Fills each map to the same size, then times every single lookup of a
+ * shuffled mix of present and absent keys and prints the percentiles up to
+ * p99.99. Latencies include ~20-30 ns of System.nanoTime() overhead.
+ *
+ * The cuckoo table bounds a lookup to 2 buckets (8 hashes) plus the stash,
+ * so its p99.99/p50 ratio should stay close to the cache-miss cost, while
+ * chains and probe runs grow with bad luck in the hash distribution.
+ *
+ * Run:   javac *.java && java -Xms4g -Xmx4g CuckooLatencyBenchmark [entries] [lookups]
+ * (default 2M entries, 10M lookups)
+ */
+public class CuckooLatencyBenchmark {
+
+    public static void main(String args[]){
+        int size = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 2_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1].replace("_", "")) : 10_000_000;
+        Integer keys[] = new Integer[size];
+        Random random = new Random(42);
+        for(int i = 0; i < size; i++){
+            keys[i] = random.nextInt() | 1; //odd values are present
+        }
+        Integer probes[] = new Integer[lookups];
+        for(int i = 0; i < lookups; i++){
+            Integer key = keys[random.nextInt(size)];
+            probes[i] = random.nextBoolean() ? key : key ^ 1; //half hits, half misses
+        }
+
+        CuckooHashMap<Integer, Integer> cuckoo = new CuckooHashMap<>();
+        function.HashMap<Integer, Integer> chained = new function.HashMap<>();
+        RobinHoodHashMap<Integer, Integer> robin = new RobinHoodHashMap<>();
+        java.util.HashMap<Integer, Integer> java = new java.util.HashMap<>();
+        for(Integer key : keys){
+            cuckoo.put(key, key);
+            chained.put(key, key);
+            robin.put(key, key);
+            java.put(key, key);
+        }
+
+        Map<String, Predicate<Integer>> engines = new LinkedHashMap<>();
+        engines.put("cuckoo", cuckoo::containsKey);
+        engines.put("chained", chained::containsKey);
+        engines.put("robinhood", robin::containsKey);
+        engines.put("java.util", java::containsKey);
+
+        long latencies[] = new long[lookups];
+        for(int round = 0; round < 2; round++){//warm-up
+            for(Predicate<Integer> engine : engines.values()){
+                measure(engine, Arrays.copyOf(probes, Math.min(lookups, 1_000_000)), latencies);
+            }
+        }
+        System.out.printf("entries=%d lookups=%d cuckoo stash=%d%n", size, lookups, cuckoo.stashSize());
+        System.out.printf("%-12s %9s %9s %9s %10s %10s%n", "engine", "p50(ns)", "p99(ns)", "p999(ns)", "p9999(ns)", "max(ns)");
+        for(Map.Entry<String, Predicate<Integer>> e : engines.entrySet()){
+            measure(e.getValue(), probes, latencies);
+            long sorted[] = latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-12s %9d %9d %9d %10d %10d%n", e.getKey(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    percentile(sorted, 0.9999), sorted[sorted.length - 1]);
+        }
+    }
+
+    private static void measure(Predicate<Integer> engine, Integer probes[], long latencies[]){
+        int found = 0;
+        for(int i = 0; i < probes.length; i++){
+            long t = System.nanoTime();
+            if(engine.test(probes[i])) found++;
+            latencies[i] = System.nanoTime() - t;
+        }
+        if(found == -1) System.out.println(); //keeps the lookups from being optimised away
+    }
+
+    private static long percentile(long sorted[], double p){
+        return sorted[(int)Math.min(sorted.length - 1, (long)(p * sorted.length))];
+    }
+}
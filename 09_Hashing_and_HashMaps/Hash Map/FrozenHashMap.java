@@ -0,0 +1,327 @@
+import java.util.*;
+
+/**
+ * Immutable map over a minimal perfect hash function (PTHash-style)
+ * Built once by function.HashMap.freeze(): every key gets its own index in
+ * [0, n), so keys and values sit in dense arrays with no empty slots, no
+ * chains and no probing. A lookup decodes one pilot, computes the index and
+ * compares a single key, falling back to the overflow map below on a mismatch.
+ *
+ * Construction (Pibiri & Trani, "PTHash", SIGIR 2021):
+ * - keys are hashed to 64 bits and spread over n/LAMBDA buckets, skewed so
+ *   60% of the keys land in 30% of the buckets
+ * - buckets are placed biggest first; for each one we search the smallest
+ *   "pilot" p that sends all its keys to free, distinct positions
+ *   pos = fastrange(mix(hash ^ mix(p)), n / ALPHA)
+ * - positions >= n (the table is ALPHA = 99% full) are remapped to the holes below n
+ * - pilots are stored as indexes into a dictionary of the distinct pilot values,
+ *   bit-packed at ceil(log2(dictionary size)) bits each
+ *
+ * Keys that share a 32-bit hashCode() cannot be told apart by any function of it;
+ * the (rare) extra ones are kept in a small function.HashMap on the side.
+ *
+ * Time Complexity: O(1) worst case per lookup, O(n) expected to build
+ * Space Complexity: n keys + n values + about bitsPerKey() bits per key for the hash function
+ */
+public class FrozenHashMap<K, V> {
+    private static final int LAMBDA = 5; //average keys per bucket
+    private static final double ALPHA = 0.99; //fill of the position space before remapping
+    private static final int MAX_PILOT = 1 << 24; //give up on this seed beyond that
+
+    private final int n; //keys in the perfect-hash part
+    private final Object keys[];
+    private final Object values[];
+    private final long seed;
+    private final int buckets;
+    private final int p2; //buckets receiving the dense 60% of the keys
+    private final long m; //position space, n / ALPHA
+    private final int dictionary[]; //distinct pilot values
+    private final long codes[]; //per bucket, index into dictionary, width bits each
+    private final int width;
+    private final int remap[]; //remap[pos - n] = free index < n for pos >= n
+    private final function.HashMap<K, V> overflow; //keys whose hashCode() collided, or null; fully rehashed, so reads never modify it
+
+    @SuppressWarnings("unchecked")
+    FrozenHashMap(Object inputKeys[], Object inputValues[]){
+        //drop keys whose hashCode() repeats into the overflow map
+        int count = inputKeys.length;
+        long order[] = new long[count];
+        for(int i = 0; i < count; i++){
+            order[i] = (long)inputKeys[i].hashCode() << 32 | i;
+        }
+        Arrays.sort(order);
+        boolean keep[] = new boolean[count];
+        function.HashMap<K, V> extra = null;
+        int unique = 0;
+        for(int j = 0; j < count; j++){
+            int i = (int)order[j];
+            if(j > 0 && (order[j] >>> 32) == (order[j - 1] >>> 32)){
+                if(extra == null){
+                    extra = new function.HashMap<>();
+                }
+                extra.put((K) inputKeys[i], (V) inputValues[i]);
+            }
+            else{
+                keep[i] = true;
+                unique++;
+            }
+        }
+        if(extra != null){
+            extra.ensureCapacity(extra.size()); //finishes the incremental rehash now instead of inside later gets
+        }
+        overflow = extra;
+        n = unique;
+        int hashCodes[] = new int[n];
+        int source[] = new int[n];
+        for(int i = 0, k = 0; i < count; i++){
+            if(keep[i]){
+                hashCodes[k] = inputKeys[i].hashCode();
+                source[k++] = i;
+            }
+        }
+
+        buckets = Math.max(1, (n + LAMBDA - 1) / LAMBDA);
+        p2 = Math.max(1, (int)(buckets * 0.3)); //unused when there is a single bucket
+        m = Math.max(1, (long)Math.ceil(n / ALPHA));
+        remap = new int[(int)(m - n)];
+        int pilots[] = new int[buckets];
+        long s = 0x51ED270B27D4EB4FL;
+        int position[];
+        while((position = build(hashCodes, s, pilots)) == null){//rare: some bucket found no pilot, start over with a new seed
+            s = mix(s + 1);
+        }
+        seed = s;
+        dictionary = distinctPilots(pilots);
+        width = Math.max(1, 32 - Integer.numberOfLeadingZeros(dictionary.length - 1));
+        codes = packPilots(pilots);
+        keys = new Object[n];
+        values = new Object[n];
+        for(int k = 0; k < n; k++){
+            keys[position[k]] = inputKeys[source[k]];
+            values[position[k]] = inputValues[source[k]];
+        }
+    }
+
+    //murmur3 fmix64
+    private static long mix(long x){
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB9FE1A85EC53L;
+        return x ^ (x >>> 33);
+    }
+
+    private long hash(int hashCode){
+        return mix(seed ^ hashCode);
+    }
+
+    //60% of the keys (low 32 bits below 0.6 * 2^32) go to the first 30% of the buckets
+    private int bucketOf(long h){
+        long lo = h & 0xFFFFFFFFL;
+        long hi = h >>> 32;
+        if(lo < 2576980377L){//0.6 * 2^32
+            return (int)((hi * p2) >>> 32);
+        }
+        return p2 + (int)((hi * (buckets - p2)) >>> 32);
+    }
+
+    private int positionOf(long h, int pilot){
+        return (int)unsignedMultiplyHigh(mix(h ^ mix(pilot)), m);
+    }
+
+    //high 64 bits of the unsigned 128-bit product; Math.unsignedMultiplyHigh is Java 18+
+    private static long unsignedMultiplyHigh(long a, long b){
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    //index of every key with its bucket pilots and remap filled in, or null if this seed failed
+    private int[] build(int hashCodes[], long seed, int pilots[]){
+        long h[] = new long[n];
+        int bucket[] = new int[n];
+        int size[] = new int[buckets];
+        for(int k = 0; k < n; k++){
+            h[k] = mix(seed ^ hashCodes[k]);
+            bucket[k] = buckets == 1 ? 0 : bucketOf(h[k]);
+            size[bucket[k]]++;
+        }
+        //keys grouped by bucket (counting sort), buckets ordered by size, biggest first
+        int start[] = new int[buckets + 1];
+        for(int b = 0; b < buckets; b++) start[b + 1] = start[b] + size[b];
+        int members[] = new int[n];
+        int fill[] = Arrays.copyOf(start, buckets);
+        for(int k = 0; k < n; k++) members[fill[bucket[k]]++] = k;
+        int maxSize = 0;
+        for(int s : size) maxSize = Math.max(maxSize, s);
+        int bySize[] = new int[maxSize + 2];
+        for(int s : size) bySize[s]++;
+        for(int s = maxSize; s > 0; s--) bySize[s - 1] += bySize[s]; //bySize[s] = buckets of size >= s
+        int bucketOrder[] = new int[buckets];
+        int next[] = new int[maxSize + 2];
+        for(int s = 0; s <= maxSize; s++) next[s] = bySize[s + 1];
+        for(int b = 0; b < buckets; b++) bucketOrder[next[size[b]]++] = b;
+
+        long taken[] = new long[(int)((m + 63) >>> 6)];
+        Arrays.fill(pilots, 0);
+        int pos[] = new int[maxSize];
+        int result[] = new int[n];
+        for(int b : bucketOrder){
+            int s = size[b];
+            if(s == 0) continue;
+            search:
+            for(int pilot = 0; ; pilot++){
+                if(pilot == MAX_PILOT){
+                    return null;
+                }
+                for(int i = 0; i < s; i++){
+                    int p = positionOf(h[members[start[b] + i]], pilot);
+                    if((taken[p >>> 6] & 1L << p) != 0){
+                        continue search;
+                    }
+                    for(int j = 0; j < i; j++){
+                        if(pos[j] == p) continue search;
+                    }
+                    pos[i] = p;
+                }
+                for(int i = 0; i < s; i++){
+                    taken[pos[i] >>> 6] |= 1L << pos[i];
+                    result[members[start[b] + i]] = pos[i];
+                }
+                pilots[b] = pilot;
+                break;
+            }
+        }
+
+        //positions n..m-1 point at the holes left below n
+        int hole = 0;
+        for(int p = n; p < m; p++){
+            if((taken[p >>> 6] & 1L << p) != 0){
+                while((taken[hole >>> 6] & 1L << hole) != 0) hole++;
+                remap[p - n] = hole++;
+            }
+        }
+        for(int k = 0; k < n; k++){
+            if(result[k] >= n) result[k] = remap[result[k] - n];
+        }
+        return result;
+    }
+
+    //distinct pilots, most frequent first, so the common ones get the small indexes
+    private static int[] distinctPilots(int pilots[]){
+        function.HashMap<Integer, Integer> frequency = new function.HashMap<>();
+        for(int p : pilots){
+            Integer f = frequency.get(p);
+            frequency.put(p, f == null ? 1 : f + 1);
+        }
+        ArrayList<Integer> distinct = frequency.keySet();
+        distinct.sort((a, b) -> frequency.get(b) - frequency.get(a));
+        int dictionary[] = new int[distinct.size()];
+        for(int i = 0; i < dictionary.length; i++){
+            dictionary[i] = distinct.get(i);
+        }
+        return dictionary;
+    }
+
+    //per bucket, the index of its pilot in dictionary, bit-packed at width bits each
+    private long[] packPilots(int pilots[]){
+        function.HashMap<Integer, Integer> index = new function.HashMap<>();
+        for(int i = 0; i < dictionary.length; i++){
+            index.put(dictionary[i], i);
+        }
+        long codes[] = new long[(int)(((long)pilots.length * width + 63) >>> 6) + 1];
+        for(int b = 0; b < pilots.length; b++){
+            long code = index.get(pilots[b]);
+            long bit = (long)b * width;
+            int word = (int)(bit >>> 6), shift = (int)(bit & 63);
+            codes[word] |= code << shift;
+            if(shift + width > 64){
+                codes[word + 1] |= code >>> (64 - shift);
+            }
+        }
+        return codes;
+    }
+
+    private int pilotOf(int b){
+        long bit = (long)b * width;
+        int word = (int)(bit >>> 6), shift = (int)(bit & 63);
+        long code = codes[word] >>> shift;
+        if(shift + width > 64){
+            code |= codes[word + 1] << (64 - shift);
+        }
+        return dictionary[(int)(code & ((1L << width) - 1))];
+    }
+
+    //dense index of key in [0, n); meaningless for a key that is not in the map
+    private int indexOf(Object key){
+        long h = hash(key.hashCode());
+        int b = buckets == 1 ? 0 : bucketOf(h);
+        int p = positionOf(h, pilotOf(b));
+        return p < n ? p : remap[p - n];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key){
+        if(n > 0){
+            int i = indexOf(key);
+            if(key.equals(keys[i])){
+                return (V) values[i];
+            }
+        }
+        return overflow == null ? null : overflow.get(key);
+    }
+
+    public boolean containsKey(K key){
+        if(n > 0 && key.equals(keys[indexOf(key)])){
+            return true;
+        }
+        return overflow != null && overflow.containsKey(key);
+    }
+
+    public int size(){
+        return n + (overflow == null ? 0 : overflow.size());
+    }
+
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ArrayList<K> keySet(){
+        ArrayList<K> result = new ArrayList<>(size());
+        for(Object key : keys){
+            result.add((K) key);
+        }
+        if(overflow != null){
+            result.addAll(overflow.keySet());
+        }
+        return result;
+    }
+
+    //space of the hash function itself (pilots, dictionary, remap table) per key
+    public double bitsPerKey(){
+        if(n == 0) return 0;
+        long bits = (long)buckets * width + 32L * dictionary.length + 32L * remap.length;
+        return (double)bits / n;
+    }
+
+    //keys kept outside the perfect hash because their hashCode() was taken
+    public int overflowSize(){
+        return overflow == null ? 0 : overflow.size();
+    }
+
+    public static void main(String args[]){
+        function.HashMap<String, Integer> map = new function.HashMap<>();
+        map.put("India", 135);
+        map.put("China", 140);
+        map.put("USA", 40);
+        map.put("UK", 20);
+        map.put("Aa", 1); //"Aa" and "BB" share a hashCode
+        map.put("BB", 2);
+
+        FrozenHashMap<String, Integer> frozen = map.freeze();
+        for(String key : frozen.keySet()){
+            System.out.println(key + " -> " + frozen.get(key));
+        }
+        System.out.println(frozen.get("France"));
+        System.out.printf("%d keys, %d in overflow, %.2f bits/key%n", frozen.size(), frozen.overflowSize(), frozen.bitsPerKey());
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Read-only reference data: FrozenHashMap (minimal perfect hash) vs the mutable maps
+ * Builds a function.HashMap of String keys, freezes it, and reports the freeze time,
+ * the perfect hash's bits per key, and lookup ns/op (hits and misses, best of 5)
+ * for the frozen map, function.HashMap and java.util.HashMap.
+ *
+ * Run:   javac *.java && java -Xmx4g FrozenMapBenchmark [keys]   (default 2M)
+ */
+public class FrozenMapBenchmark {
+
+    public static void main(String args[]){
+        int n = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 2_000_000;
+        String keys[] = new String[n];
+        String missing[] = new String[n];
+        for(int i = 0; i < n; i++){
+            keys[i] = "ISIN-" + (1_000_000_000L + i * 7L);
+            missing[i] = "ISIN-" + (1_000_000_000L + i * 7L + 3);
+        }
+        String probes[] = keys.clone();
+        Collections.shuffle(Arrays.asList(probes), new Random(42));
+
+        function.HashMap<String, Integer> chained = new function.HashMap<>();
+        java.util.HashMap<String, Integer> java = new java.util.HashMap<>();
+        for(int i = 0; i < n; i++){
+            chained.put(keys[i], i);
+            java.put(keys[i], i);
+        }
+        long t = System.nanoTime();
+        FrozenHashMap<String, Integer> frozen = chained.freeze();
+        long freezeMs = (System.nanoTime() - t) / 1_000_000;
+        System.out.printf("n=%d  freeze=%d ms  perfect hash=%.2f bits/key  overflow=%d%n",
+                n, freezeMs, frozen.bitsPerKey(), frozen.overflowSize());
+
+        Map<String, Predicate<String>> engines = new LinkedHashMap<>();
+        engines.put("frozen", frozen::containsKey);
+        engines.put("chained", chained::containsKey);
+        engines.put("java.util", java::containsKey);
+        System.out.printf("%-10s %10s %10s%n", "engine", "hit(ns)", "miss(ns)");
+        for(Map.Entry<String, Predicate<String>> e : engines.entrySet()){
+            System.out.printf("%-10s %10.1f %10.1f%n", e.getKey(), best(e.getValue(), probes, true), best(e.getValue(), missing, false));
+        }
+    }
+
+    //ns per lookup of the fastest of 5 runs (the first runs double as JIT warm-up)
+    private static double best(Predicate<String> map, String keys[], boolean expected){
+        long best = Long.MAX_VALUE;
+        for(int run = 0; run < 5; run++){
+            int found = 0;
+            long t = System.nanoTime();
+            for(String key : keys){
+                if(map.test(key)) found++;
+            }
+            best = Math.min(best, System.nanoTime() - t);
+            if(found != (expected ? keys.length : 0)){
+                throw new IllegalStateException("wrong lookup result");
+            }
+        }
+        return (double)best / keys.length;
+    }
+}
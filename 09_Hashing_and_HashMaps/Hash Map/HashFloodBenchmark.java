@@ -0,0 +1,95 @@
+import java.util.*;
+
+/**
+ * Hash-flooding: every key has the same hashCode
+ * Strings built from the blocks "Aa" and "BB" all collide ("AaAa", "AaBB",
+ * "BBAa", "BBBB" -> same hashCode), so an attacker can put all of them in one
+ * bucket. With treeified buckets function.HashMap keeps lookups at O(log n);
+ * linear probing (RobinHoodHashMap) degrades to O(n) per lookup.
+ *
+ * Run:   javac *.java && java HashFloodBenchmark
+ */
+public class HashFloodBenchmark {
+    private static final int ROBIN_HOOD_LIMIT = 1 << 13; //O(n^2) inserts get too slow past this
+
+    public static void main(String args[]){
+        for(int round = 0; round < 2; round++){//warm-up
+            run(10, false);
+        }
+        System.out.printf("%-8s %-10s %14s %14s %14s%n", "keys", "engine", "put(ns/op)", "get avg(ns)", "get max(ns)");
+        for(int blocks = 10; blocks <= 16; blocks += 2){
+            run(blocks, true);
+        }
+    }
+
+    //all 2^blocks strings made of "Aa"/"BB" blocks, shuffled
+    private static String[] collidingKeys(int blocks){
+        String keys[] = new String[1 << blocks];
+        for(int i = 0; i < keys.length; i++){
+            StringBuilder sb = new StringBuilder(blocks * 2);
+            for(int b = 0; b < blocks; b++){
+                sb.append(((i >> b) & 1) == 0 ? "Aa" : "BB");
+            }
+            keys[i] = sb.toString();
+        }
+        Collections.shuffle(Arrays.asList(keys), new Random(42));
+        return keys;
+    }
+
+    private static void run(int blocks, boolean print){
+        String keys[] = collidingKeys(blocks);
+        long sink = 0;
+
+        function.HashMap<String, Integer> chained = new function.HashMap<>();
+        long t0 = System.nanoTime();
+        for(int i = 0; i < keys.length; i++) chained.put(keys[i], i);
+        long put = System.nanoTime() - t0;
+        long sum = 0, max = 0;
+        for(String key : keys){
+            long t = System.nanoTime();
+            sink += chained.get(key);
+            long d = System.nanoTime() - t;
+            sum += d;
+            max = Math.max(max, d);
+        }
+        if(print) report(keys.length, "treeified", put, sum, max);
+
+        if(keys.length <= ROBIN_HOOD_LIMIT){
+            RobinHoodHashMap<String, Integer> robin = new RobinHoodHashMap<>();
+            t0 = System.nanoTime();
+            for(int i = 0; i < keys.length; i++) robin.put(keys[i], i);
+            put = System.nanoTime() - t0;
+            sum = 0;
+            max = 0;
+            for(String key : keys){
+                long t = System.nanoTime();
+                sink += robin.get(key);
+                long d = System.nanoTime() - t;
+                sum += d;
+                max = Math.max(max, d);
+            }
+            if(print) report(keys.length, "robinhood", put, sum, max);
+        }
+
+        java.util.HashMap<String, Integer> jdk = new java.util.HashMap<>();
+        t0 = System.nanoTime();
+        for(int i = 0; i < keys.length; i++) jdk.put(keys[i], i);
+        put = System.nanoTime() - t0;
+        sum = 0;
+        max = 0;
+        for(String key : keys){
+            long t = System.nanoTime();
+            sink += jdk.get(key);
+            long d = System.nanoTime() - t;
+            sum += d;
+            max = Math.max(max, d);
+        }
+        if(print) report(keys.length, "java.util", put, sum, max);
+
+        if(sink == 42) System.out.println(); //keeps the loops from being optimised away
+    }
+
+    private static void report(int size, String engine, long put, long sum, long max){
+        System.out.printf("%-8d %-10s %14.1f %14.1f %14d%n", size, engine, (double)put / size, (double)sum / size, max);
+    }
+}
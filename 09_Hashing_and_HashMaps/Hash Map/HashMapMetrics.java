@@ -0,0 +1,314 @@
+import java.util.*;
+import jdk.jfr.*;
+
+/**
+ * Opt-in health view of a function.HashMap
+ *   HashMapMetrics m = map.enableMetrics("sessions");
+ *   ...
+ *   System.out.println(m.snapshot());
+ *
+ * Counted while enabled:
+ * - nodes compared per lookup (searchInLL chain walk or TreeBin descent), as a histogram
+ * - rehash count, time spent migrating buckets, wall time from start to finish
+ * snapshot() adds the current load factor and a chain-length histogram (one pass over the buckets).
+ *
+ * JFR events (record with -XX:StartFlightRecording, view with `jfr print --events function.HashMap.*`):
+ * - function.HashMap.Rehash     one per finished rehash, duration = wall time of the migration
+ * - function.HashMap.LongProbe  a lookup compared more than longProbeThreshold nodes
+ * - function.HashMap.Health     the summary of every snapshot() call
+ * Events cost nothing unless a recording has them enabled.
+ *
+ * Like the map itself this view is not thread-safe: call snapshot() from the thread using the map.
+ */
+public class HashMapMetrics {
+    public static final int HISTOGRAM_SLOTS = 17; //0..15, and 16 or more
+
+    private final String name;
+    private final function.HashMap<?, ?> map;
+    private int longProbeThreshold = 8; //TREEIFY_THRESHOLD: a healthy chain never needs more
+
+    private long lookups;
+    private long comparisons;
+    private int maxComparisons;
+    private final long comparisonHistogram[] = new long[HISTOGRAM_SLOTS];
+
+    private long rehashes;
+    private long rehashWorkNanos; //inside rehash steps, summed over all rehashes
+    private long lastRehashWallNanos;
+    private RehashEvent rehash; //the running rehash, null if none
+    private long rehashStart;
+    private long rehashStartWork;
+
+    HashMapMetrics(String name, function.HashMap<?, ?> map){
+        this.name = name;
+        this.map = map;
+    }
+
+    //lookups comparing more nodes than this raise a LongProbe event
+    public HashMapMetrics longProbeThreshold(int threshold){
+        this.longProbeThreshold = threshold;
+        return this;
+    }
+
+    void lookup(int compared, int hash){
+        lookups++;
+        comparisons += compared;
+        maxComparisons = Math.max(maxComparisons, compared);
+        comparisonHistogram[Math.min(compared, HISTOGRAM_SLOTS - 1)]++;
+        if(compared > longProbeThreshold){
+            LongProbeEvent event = new LongProbeEvent();
+            if(event.shouldCommit()){
+                event.map = name;
+                event.hash = hash;
+                event.comparisons = compared;
+                event.size = map.size();
+                event.commit();
+            }
+        }
+    }
+
+    void rehashStarted(int fromBuckets, int toBuckets){
+        rehash = new RehashEvent();
+        rehash.map = name;
+        rehash.fromBuckets = fromBuckets;
+        rehash.toBuckets = toBuckets;
+        rehash.begin();
+        rehashStart = System.nanoTime();
+        rehashStartWork = rehashWorkNanos;
+    }
+
+    void rehashWork(long nanos){
+        rehashWorkNanos += nanos;
+    }
+
+    void rehashFinished(int size){
+        rehashes++;
+        lastRehashWallNanos = System.nanoTime() - rehashStart;
+        if(rehash != null){
+            rehash.end();
+            if(rehash.shouldCommit()){
+                rehash.size = size;
+                rehash.workNanos = rehashWorkNanos - rehashStartWork;
+                rehash.commit();
+            }
+            rehash = null;
+        }
+    }
+
+    //zeroes the lookup and rehash counters
+    public void reset(){
+        lookups = 0;
+        comparisons = 0;
+        maxComparisons = 0;
+        Arrays.fill(comparisonHistogram, 0);
+        rehashes = 0;
+        rehashWorkNanos = 0;
+        lastRehashWallNanos = 0;
+    }
+
+    //O(buckets): walks the table for the chain histogram, then emits a Health event
+    public Snapshot snapshot(){
+        long chains[] = new long[HISTOGRAM_SLOTS];
+        int treeBins = map.chainLengths(chains);
+        Snapshot s = new Snapshot(name, map.size(), map.bucketCount(), map.isRehashing(), chains, treeBins,
+                lookups, comparisons, maxComparisons, comparisonHistogram.clone(),
+                rehashes, rehashWorkNanos, lastRehashWallNanos);
+        HealthEvent event = new HealthEvent();
+        if(event.shouldCommit()){
+            event.map = name;
+            event.size = s.size;
+            event.buckets = s.buckets;
+            event.loadFactor = s.loadFactor;
+            event.longestChain = s.longestChain();
+            event.treeBins = treeBins;
+            event.averageComparisons = s.averageComparisons();
+            event.maxComparisons = maxComparisons;
+            event.rehashes = rehashes;
+            event.commit();
+        }
+        return s;
+    }
+
+    //immutable copy of the counters at one point in time
+    public static final class Snapshot{
+        public final String map;
+        public final int size;
+        public final int buckets;
+        public final double loadFactor; //nodes per bucket; a rehash starts above 2.0
+        public final boolean rehashing;
+        private final long chainHistogram[]; //[i] = buckets holding i nodes, last slot = 16 or more
+        public final int treeBins;
+        public final long lookups;
+        public final long comparisons;
+        public final int maxComparisons;
+        private final long comparisonHistogram[]; //[i] = lookups that compared i nodes, last slot = 16 or more
+        public final long rehashes;
+        public final long rehashWorkNanos;
+        public final long lastRehashWallNanos;
+
+        Snapshot(String map, int size, int buckets, boolean rehashing, long chainHistogram[], int treeBins,
+                long lookups, long comparisons, int maxComparisons, long comparisonHistogram[],
+                long rehashes, long rehashWorkNanos, long lastRehashWallNanos){
+            this.map = map;
+            this.size = size;
+            this.buckets = buckets;
+            this.loadFactor = (double)size / buckets;
+            this.rehashing = rehashing;
+            this.chainHistogram = chainHistogram;
+            this.treeBins = treeBins;
+            this.lookups = lookups;
+            this.comparisons = comparisons;
+            this.maxComparisons = maxComparisons;
+            this.comparisonHistogram = comparisonHistogram;
+            this.rehashes = rehashes;
+            this.rehashWorkNanos = rehashWorkNanos;
+            this.lastRehashWallNanos = lastRehashWallNanos;
+        }
+
+        //the histograms are handed out as copies, so the snapshot stays as it was taken
+        public long[] chainHistogram(){
+            return chainHistogram.clone();
+        }
+
+        public long[] comparisonHistogram(){
+            return comparisonHistogram.clone();
+        }
+
+        public double averageComparisons(){
+            return lookups == 0 ? 0 : (double)comparisons / lookups;
+        }
+
+        public int longestChain(){
+            for(int i = chainHistogram.length - 1; i > 0; i--){
+                if(chainHistogram[i] != 0){
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        //share of lookups that compared more than k nodes
+        public double lookupsAbove(int k){
+            long above = 0;
+            for(int i = k + 1; i < comparisonHistogram.length; i++){
+                above += comparisonHistogram[i];
+            }
+            return lookups == 0 ? 0 : (double)above / lookups;
+        }
+
+        public String toString(){
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%s: size=%d buckets=%d load=%.2f%s treeBins=%d%n",
+                    map, size, buckets, loadFactor, rehashing ? " (rehashing)" : "", treeBins));
+            sb.append(String.format("  lookups=%d avg compares=%.2f max=%d  rehashes=%d work=%.2fms last wall=%.2fms%n",
+                    lookups, averageComparisons(), maxComparisons, rehashes, rehashWorkNanos / 1e6, lastRehashWallNanos / 1e6));
+            sb.append("  chain length   ").append(histogram(chainHistogram)).append(System.lineSeparator());
+            sb.append("  compares/op    ").append(histogram(comparisonHistogram));
+            return sb.toString();
+        }
+
+        private static String histogram(long h[]){
+            StringBuilder sb = new StringBuilder();
+            for(int i = 0; i < h.length; i++){
+                if(h[i] != 0){
+                    sb.append(i == h.length - 1 ? i + "+" : String.valueOf(i)).append(':').append(h[i]).append(' ');
+                }
+            }
+            return sb.toString().trim();
+        }
+    }
+
+    @Name("function.HashMap.Rehash")
+    @Label("HashMap Rehash")
+    @Category({"Data Structures", "HashMap"})
+    @Description("A function.HashMap migrated to a bigger table; duration is start to finish of the incremental migration")
+    static class RehashEvent extends Event{
+        @Label("Map")
+        String map;
+        @Label("From Buckets")
+        int fromBuckets;
+        @Label("To Buckets")
+        int toBuckets;
+        @Label("Size")
+        int size;
+        @Label("Migration Work")
+        @Timespan(Timespan.NANOSECONDS)
+        long workNanos;
+    }
+
+    @Name("function.HashMap.LongProbe")
+    @Label("HashMap Long Probe")
+    @Category({"Data Structures", "HashMap"})
+    @Description("A lookup compared more nodes than the configured threshold")
+    static class LongProbeEvent extends Event{
+        @Label("Map")
+        String map;
+        @Label("Hash")
+        int hash;
+        @Label("Comparisons")
+        int comparisons;
+        @Label("Size")
+        int size;
+    }
+
+    @Name("function.HashMap.Health")
+    @Label("HashMap Health")
+    @Category({"Data Structures", "HashMap"})
+    @Description("Summary taken by HashMapMetrics.snapshot()")
+    static class HealthEvent extends Event{
+        @Label("Map")
+        String map;
+        @Label("Size")
+        int size;
+        @Label("Buckets")
+        int buckets;
+        @Label("Load Factor")
+        double loadFactor;
+        @Label("Longest Chain")
+        int longestChain;
+        @Label("Tree Bins")
+        int treeBins;
+        @Label("Average Comparisons")
+        double averageComparisons;
+        @Label("Max Comparisons")
+        int maxComparisons;
+        @Label("Rehashes")
+        long rehashes;
+    }
+
+    private static final class BadKey{
+        final int id;
+        BadKey(int id){
+            this.id = id;
+        }
+        public int hashCode(){
+            return id & 7;
+        }
+        public boolean equals(Object o){
+            return o instanceof BadKey && ((BadKey) o).id == id;
+        }
+    }
+
+    //run with -XX:StartFlightRecording=filename=map.jfr to capture the events as well
+    public static void main(String args[]){
+        function.HashMap<Integer, Integer> good = new function.HashMap<>();
+        HashMapMetrics m = good.enableMetrics("good");
+        for(int i = 0; i < 100_000; i++){
+            good.put(i * 31, i);
+        }
+        for(int i = 0; i < 100_000; i++){
+            good.get(i * 17);
+        }
+        System.out.println(m.snapshot());
+
+        //a hashCode with only 8 distinct values: every lookup walks a long chain or TreeBin
+        function.HashMap<BadKey, Integer> bad = new function.HashMap<>();
+        m = bad.enableMetrics("bad");
+        for(int i = 0; i < 4_000; i++){
+            bad.put(new BadKey(i), i);
+        }
+        HashMapMetrics.Snapshot s = m.snapshot();
+        System.out.println(s);
+        System.out.printf("lookups comparing more than 8 nodes: %.1f%%%n", s.lookupsAbove(8) * 100);
+    }
+}
@@ -0,0 +1,110 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Pluggable hash function for function.HashMap
+ * The map picks a bucket with hash & (N - 1), so a strategy has to leave its
+ * best-mixed bits at the bottom of the int it returns.
+ *
+ * - spread():    h ^ (h >>> 16), the default; one xor, relies on hashCode() being decent
+ * - murmur3():   MurmurHash3 fmix32 finalizer, every input bit affects every output bit
+ * - fibonacci(): h * 2^32/phi; the product's top bits are the well-mixed ones, so
+ *                they are bit-reversed to the bottom for the mask
+ * - xxHash64():  hashes the bytes of ByteBuffer keys (content equality, unlike byte[])
+ *                instead of calling hashCode()
+ *
+ * Any lambda works too:  new function.HashMap<K, V>(key -> ...)
+ */
+@FunctionalInterface
+public interface HashStrategy<K> {
+
+    int hash(K key);
+
+    static <K> HashStrategy<K> spread(){
+        return key -> {
+            int h = key.hashCode();
+            return h ^ (h >>> 16);
+        };
+    }
+
+    static <K> HashStrategy<K> murmur3(){
+        return key -> fmix32(key.hashCode());
+    }
+
+    static <K> HashStrategy<K> fibonacci(){
+        return key -> Integer.reverse(key.hashCode() * 0x9E3779B9);
+    }
+
+    //hashes position..limit of the buffer without moving its position
+    static HashStrategy<ByteBuffer> xxHash64(){
+        return key -> {
+            long h = xxHash64(key, key.position(), key.remaining(), 0);
+            return (int)(h ^ (h >>> 32));
+        };
+    }
+
+    static int fmix32(int h){
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    //XXH64 (https://github.com/Cyan4973/xxHash), little-endian reads, works on heap and direct buffers
+    static long xxHash64(ByteBuffer buf, int off, int len, long seed){
+        final long P1 = 0x9E3779B185EBCA87L, P2 = 0xC2B2AE3D27D4EB4FL, P3 = 0x165667B19E3779F9L;
+        final long P4 = 0x85EBCA77C2B2AE63L, P5 = 0x27D4EB2F165667C5L;
+        VarHandle LONG = XX.LONG, INT = XX.INT;
+        int end = off + len;
+        int p = off;
+        long h;
+        if(len >= 32){
+            long v1 = seed + P1 + P2, v2 = seed + P2, v3 = seed, v4 = seed - P1;
+            for(int limit = end - 32; p <= limit; p += 32){
+                v1 = Long.rotateLeft(v1 + (long)LONG.get(buf, p) * P2, 31) * P1;
+                v2 = Long.rotateLeft(v2 + (long)LONG.get(buf, p + 8) * P2, 31) * P1;
+                v3 = Long.rotateLeft(v3 + (long)LONG.get(buf, p + 16) * P2, 31) * P1;
+                v4 = Long.rotateLeft(v4 + (long)LONG.get(buf, p + 24) * P2, 31) * P1;
+            }
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = (h ^ Long.rotateLeft(v1 * P2, 31) * P1) * P1 + P4;
+            h = (h ^ Long.rotateLeft(v2 * P2, 31) * P1) * P1 + P4;
+            h = (h ^ Long.rotateLeft(v3 * P2, 31) * P1) * P1 + P4;
+            h = (h ^ Long.rotateLeft(v4 * P2, 31) * P1) * P1 + P4;
+        }
+        else{
+            h = seed + P5;
+        }
+        h += len;
+        for(; p + 8 <= end; p += 8){
+            h ^= Long.rotateLeft((long)LONG.get(buf, p) * P2, 31) * P1;
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+        }
+        if(p + 4 <= end){
+            h ^= ((int)INT.get(buf, p) & 0xFFFFFFFFL) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            p += 4;
+        }
+        for(; p < end; p++){
+            h ^= (buf.get(p) & 0xFF) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+        }
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        return h ^ (h >>> 32);
+    }
+
+    //interfaces cannot have private static fields, so the view handles live here
+    final class XX{
+        static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+        static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+        private XX(){
+        }
+    }
+}
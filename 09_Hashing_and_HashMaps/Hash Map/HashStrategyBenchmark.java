@@ -0,0 +1,122 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Bucket-distribution quality and speed of each HashStrategy on three key sets:
+ * sequential Integers, UUID strings and URL strings.
+ *
+ * For every strategy the keys are dropped into 2^k buckets at load ~2.0 (where
+ * function.HashMap rehashes) and compared with what a truly random hash gives:
+ *   empty%    share of empty buckets (random: e^-load)
+ *   max       longest chain
+ *   probes    average nodes compared by a successful lookup, / the random expectation
+ *             (1.00 = as good as random, higher = clustering, lower = more even than random)
+ * then timed: hash ns/key on its own, and get ns/op on a function.HashMap built with it.
+ *
+ * xxHash64 hashes the key bytes (ints as 4 little-endian bytes, strings as UTF-8) held in
+ * ByteBuffers; the other strategies start from hashCode(), which String caches.
+ *
+ * Run:   javac *.java && java -Xmx4g HashStrategyBenchmark [keys]   (default 1M)
+ */
+public class HashStrategyBenchmark {
+
+    public static void main(String args[]){
+        int n = args.length > 0 ? Integer.parseInt(args[0].replace("_", "")) : 1_000_000;
+        Random random = new Random(42);
+
+        Object ints[] = new Object[n];
+        Object uuids[] = new Object[n];
+        Object urls[] = new Object[n];
+        String paths[] = {"users", "orders", "products", "search", "cart"};
+        for(int i = 0; i < n; i++){
+            ints[i] = i;
+            uuids[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+            urls[i] = "https://shop.example.com/" + paths[i % paths.length] + "/" + (i / 10) + "?page=" + (i % 10);
+        }
+
+        //warm up every strategy on every key type so the JIT has seen all of them before timing
+        for(Object keys[] : new Object[][]{ints, uuids, urls}){
+            run("warm-up", Arrays.copyOf(keys, Math.min(n, 50_000)), false);
+        }
+        System.out.printf("%-15s %-10s %8s %6s %8s %10s %10s%n", "keys (n=" + n + ")", "strategy", "empty%", "max", "probes", "hash ns", "get ns");
+        run("sequential int", ints, true);
+        run("UUID", uuids, true);
+        run("URL", urls, true);
+    }
+
+    private static void run(String name, Object keys[], boolean print){
+        Map<String, HashStrategy<Object>> strategies = new LinkedHashMap<>();
+        strategies.put("hashCode", Object::hashCode); //no mixing at all, for reference
+        strategies.put("spread", HashStrategy.spread());
+        strategies.put("murmur3", HashStrategy.murmur3());
+        strategies.put("fibonacci", HashStrategy.fibonacci());
+        for(Map.Entry<String, HashStrategy<Object>> e : strategies.entrySet()){
+            measure(name, e.getKey(), keys, e.getValue(), print);
+        }
+        ByteBuffer bytes[] = new ByteBuffer[keys.length];
+        for(int i = 0; i < keys.length; i++){
+            bytes[i] = toBytes(keys[i]);
+        }
+        measure(name, "xxHash64", bytes, HashStrategy.xxHash64(), print);
+        if(print) System.out.println();
+    }
+
+    private static ByteBuffer toBytes(Object key){
+        if(key instanceof Integer){
+            return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, (Integer) key);
+        }
+        return ByteBuffer.wrap(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static <K> void measure(String keySet, String strategyName, K keys[], HashStrategy<? super K> strategy, boolean print){
+        int n = keys.length;
+        int buckets = Integer.highestOneBit(Math.max(1, n / 2)); //load between 2 and 4, as in the map
+        long counts[] = new long[buckets];
+        for(K key : keys){
+            counts[strategy.hash(key) & (buckets - 1)]++;
+        }
+        long empty = 0, max = 0, compares = 0;
+        for(long c : counts){
+            if(c == 0) empty++;
+            max = Math.max(max, c);
+            compares += c * (c + 1) / 2; //finding each of the c keys costs 1, 2, ..., c compares
+        }
+        double expected = 1 + (n - 1) / (2.0 * buckets);
+        double probes = (double)compares / n / expected;
+
+        //hash alone
+        long best = Long.MAX_VALUE;
+        int sink = 0;
+        for(int run = 0; run < 5; run++){
+            long t = System.nanoTime();
+            for(K key : keys){
+                sink += strategy.hash(key);
+            }
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        double hashNs = (double)best / n;
+
+        //lookups through the map
+        function.HashMap<K, Integer> map = new function.HashMap<>(strategy);
+        for(int i = 0; i < n; i++){
+            map.put(keys[i], i);
+        }
+        best = Long.MAX_VALUE;
+        for(int run = 0; run < 3; run++){
+            long t = System.nanoTime();
+            for(K key : keys){
+                sink += map.get(key);
+            }
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        double getNs = (double)best / n;
+
+        if(print){
+            System.out.printf("%-15s %-10s %8.1f %6d %8.2f %10.1f %10.1f%n", keySet, strategyName,
+                    100.0 * empty / buckets, max, probes, hashNs, getNs);
+        }
+        if(sink == 42) System.out.println(); //keeps the loops from being optimised away
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Memory-mapped snapshot of a function.HashMap (JDK 22+)
+ * write() lays the table out in a file; the constructor maps that file with
+ * FileChannel.map and answers lookups straight from the mapping. Nothing is
+ * deserialized on open, pages are read by the OS on first touch, and several
+ * JVMs mapping the same file share one copy in the page cache.
+ *
+ * File layout (little-endian):
+ *   header  [long magic][long entries][long capacity]
+ *   slots   capacity x [int hash][int unused][long record offset], offset 0 = empty
+ *   records [int key length][int value length][key bytes][value bytes]
+ *
+ * The snapshot is read-only: to change it, update a function.HashMap and write it again.
+ *
+ * Time Complexity: O(1) expected per lookup, O(1) to open
+ * Space Complexity: O(1) heap; the data stays in the file / page cache
+ */
+public class MappedHashMap<K, V> implements AutoCloseable {
+    private static final long MAGIC = 0x31304D48534E4646L; //"FFNSHM01"
+    private static final int HEADER_BYTES = 24;
+    private static final int SLOT_BYTES = 16;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    //turns keys and values into bytes for the file, and back
+    public interface Codec<T> {
+        byte[] encode(T value);
+        T decode(MemorySegment segment, long offset, int length);
+    }
+
+    public static final Codec<String> STRING = new Codec<String>() {
+        public byte[] encode(String value){
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+        public String decode(MemorySegment segment, long offset, int length){
+            return new String(segment.asSlice(offset, length).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+        }
+    };
+
+    public static final Codec<Integer> INTEGER = new Codec<Integer>() {
+        public byte[] encode(Integer value){
+            return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array();
+        }
+        public Integer decode(MemorySegment segment, long offset, int length){
+            return segment.get(INT, offset);
+        }
+    };
+
+    private final Arena arena;
+    private final MemorySegment file;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final long n;
+    private final long mask;
+
+    //maps an existing snapshot; no entry is read until it is looked up
+    public MappedHashMap(Path path, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException{
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.arena = Arena.ofShared();
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            this.file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        }
+        catch(IOException | RuntimeException e){
+            arena.close();
+            throw e;
+        }
+        if(file.byteSize() < HEADER_BYTES || file.get(LONG, 0) != MAGIC){
+            arena.close();
+            throw new IOException("not a MappedHashMap snapshot: " + path);
+        }
+        this.n = file.get(LONG, 8);
+        this.mask = file.get(LONG, 16) - 1;
+    }
+
+    //FNV-1a over the encoded key
+    private static int hash(MemorySegment bytes){
+        long h = 0xCBF29CE484222325L;
+        for(long i = 0; i < bytes.byteSize(); i++){
+            h = (h ^ (bytes.get(ValueLayout.JAVA_BYTE, i) & 0xFF)) * 0x100000001B3L;
+        }
+        return (int)(h ^ (h >>> 32));
+    }
+
+    //offset of the record holding key, or -1
+    private long findRecord(K key){
+        MemorySegment bytes = MemorySegment.ofArray(keyCodec.encode(key));
+        int h = hash(bytes);
+        long i = h & mask;
+        while(true){
+            long slot = HEADER_BYTES + i * SLOT_BYTES;
+            long record = file.get(LONG, slot + 8);
+            if(record == 0){
+                return -1;
+            }
+            if(file.get(INT, slot) == h && file.get(INT, record) == bytes.byteSize()
+                    && MemorySegment.mismatch(file, record + 8, record + 8 + bytes.byteSize(), bytes, 0, bytes.byteSize()) == -1){
+                return record;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public V get(K key){
+        long record = findRecord(key);
+        if(record == -1){//key not found
+            return null;
+        }
+        int keyLength = file.get(INT, record);
+        return valueCodec.decode(file, record + 8 + keyLength, file.get(INT, record + 4));
+    }
+
+    public boolean containsKey(K key){
+        return findRecord(key) != -1;
+    }
+
+    public long size(){
+        return n;
+    }
+
+    public boolean isEmpty(){
+        return n == 0;
+    }
+
+    public ArrayList<K> keySet(){
+        ArrayList<K> keys = new ArrayList<>();
+        for(long i = 0; i <= mask; i++){
+            long record = file.get(LONG, HEADER_BYTES + i * SLOT_BYTES + 8);
+            if(record != 0){
+                keys.add(keyCodec.decode(file, record + 8, file.get(INT, record)));
+            }
+        }
+        return keys;
+    }
+
+    //unmaps the file; the map must not be used afterwards
+    @Override
+    public void close(){
+        arena.close();
+    }
+
+    /**
+     * Writes map to path as a snapshot. The file is written next to path and
+     * then moved over it, so a reader never maps a half-written table.
+     */
+    public static <K, V> void write(function.HashMap<K, V> map, Path path, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException{
+        function.HashMap<K, V>.Cursor entries = map.cursor(); //scanned twice, no key list and no get() per key
+        long capacity = 16;
+        while(capacity < map.size() * 2L){//load <= 0.5 keeps probe runs short for readers
+            capacity <<= 1;
+        }
+        long recordBytes = 0;
+        while(entries.next()){
+            recordBytes += 8 + keyCodec.encode(entries.key()).length + valueCodec.encode(entries.value()).length;
+        }
+        entries.reset();
+        long recordsStart = HEADER_BYTES + capacity * SLOT_BYTES;
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try(Arena arena = Arena.ofConfined();
+            FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            MemorySegment out = channel.map(FileChannel.MapMode.READ_WRITE, 0, recordsStart + recordBytes, arena);
+            out.set(LONG, 0, MAGIC);
+            out.set(LONG, 8, map.size());
+            out.set(LONG, 16, capacity);
+            long mask = capacity - 1;
+            long at = recordsStart;
+            while(entries.next()){
+                byte k[] = keyCodec.encode(entries.key());
+                byte v[] = valueCodec.encode(entries.value());
+                int h = hash(MemorySegment.ofArray(k));
+                long i = h & mask;
+                while(out.get(LONG, HEADER_BYTES + i * SLOT_BYTES + 8) != 0){
+                    i = (i + 1) & mask;
+                }
+                out.set(INT, HEADER_BYTES + i * SLOT_BYTES, h);
+                out.set(LONG, HEADER_BYTES + i * SLOT_BYTES + 8, at);
+                out.set(INT, at, k.length);
+                out.set(INT, at + 4, v.length);
+                MemorySegment.copy(k, 0, out, ValueLayout.JAVA_BYTE, at + 8, k.length);
+                MemorySegment.copy(v, 0, out, ValueLayout.JAVA_BYTE, at + 8 + k.length, v.length);
+                at += 8 + k.length + v.length;
+            }
+            out.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void main(String args[]) throws IOException{
+        function.HashMap<String, Integer> map = new function.HashMap<>();
+        map.put("India", 135);
+        map.put("China", 140);
+        map.put("USA", 40);
+        map.put("UK", 20);
+
+        Path path = Files.createTempFile("population", ".map");
+        MappedHashMap.write(map, path, STRING, INTEGER);
+
+        //e.g. after a restart: open is O(1), nothing is rebuilt
+        try(MappedHashMap<String, Integer> snapshot = new MappedHashMap<>(path, STRING, INTEGER)){
+            ArrayList<String> keys = snapshot.keySet();
+            for(String key : keys){
+                System.out.println(key + " -> " + snapshot.get(key));
+            }
+            System.out.println(snapshot.get("Japan"));
+        }
+        Files.delete(path);
+    }
+}
@@ -0,0 +1,333 @@
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Off-heap String -> int map (java.lang.foreign, JDK 22+)
+ * function.HashMap<String, Integer> costs a Node, a LinkedList node and a boxed
+ * Integer per entry, all on the Java heap. This map keeps everything outside it:
+ *
+ * - Table: open addressing with linear probing in one MemorySegment,
+ *   16 bytes per slot = [int hash][int value][long key reference]
+ * - Keys: UTF-8 bytes appended to large slabs ([int length][bytes]); the key
+ *   reference is (slab << 32 | offset) + 1 so that 0 can mean "empty slot"
+ * - get/containsKey hash and compare the key by encoding it to UTF-8 on the fly,
+ *   so a lookup allocates nothing
+ * - close() frees all native memory at once; the map must not be used afterwards
+ *
+ * Not thread-safe. Removed keys leave their bytes in the slab until close().
+ *
+ * Time Complexity: O(1) expected per operation (plus O(key length))
+ * Space Complexity: ~23 bytes per entry at 0.7 load + key bytes, none of it on the heap
+ */
+public class OffHeapStringIntMap implements AutoCloseable {
+    private static final int SLOT_BYTES = 16;
+    private static final double MAX_LOAD = 0.7;
+    private static final long SLAB_BYTES = 64L << 20;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG;
+    private static final ValueLayout.OfInt KEY_LENGTH = ValueLayout.JAVA_INT_UNALIGNED;
+
+    private final Arena keyArena = Arena.ofShared();
+    private final ArrayList<MemorySegment> slabs = new ArrayList<>();
+    private long slabUsed; //bytes used in the last slab
+
+    private Arena tableArena;
+    private MemorySegment table;
+    private long mask; //capacity - 1
+    private long threshold;
+    private long n; //entries
+
+    public OffHeapStringIntMap(){
+        this(1024);
+    }
+
+    public OffHeapStringIntMap(long expectedSize){
+        long capacity = 16;
+        while(capacity * MAX_LOAD < expectedSize){
+            capacity <<= 1;
+        }
+        allocateTable(capacity);
+    }
+
+    private void allocateTable(long capacity){
+        tableArena = Arena.ofShared();
+        table = tableArena.allocate(capacity * SLOT_BYTES, 8); //zeroed = all slots empty
+        mask = capacity - 1;
+        threshold = (long)(capacity * MAX_LOAD);
+    }
+
+    // ==================== UTF-8 WITHOUT ALLOCATION ====================
+
+    //code point at i, with unpaired surrogates replaced by '?' like String.getBytes(UTF_8)
+    private static int codePoint(CharSequence s, int i){
+        int cp = Character.codePointAt(s, i);
+        return cp <= 0xFFFF && Character.isSurrogate((char)cp) ? '?' : cp;
+    }
+
+    private static int utf8Length(int cp){
+        if(cp < 0x80) return 1;
+        if(cp < 0x800) return 2;
+        if(cp < 0x10000) return 3;
+        return 4;
+    }
+
+    //byte j (0-based) of the UTF-8 encoding of cp, which is len bytes long
+    private static int utf8Byte(int cp, int len, int j){
+        if(len == 1) return cp;
+        int shift = 6 * (len - 1 - j);
+        if(j == 0){
+            return ((0xF00 >> len) & 0xF0) | (cp >> shift); //110xxxxx, 1110xxxx or 11110xxx
+        }
+        return 0x80 | ((cp >> shift) & 0x3F);
+    }
+
+    //FNV-1a over the UTF-8 bytes, followed by a murmur3 finalizer for the low bits
+    private static int hash(CharSequence key){
+        int h = 0x811C9DC5;
+        for(int i = 0; i < key.length(); ){
+            int cp = codePoint(key, i);
+            int len = utf8Length(cp);
+            for(int j = 0; j < len; j++){
+                h = (h ^ utf8Byte(cp, len, j)) * 0x01000193;
+            }
+            i += Character.charCount(Character.codePointAt(key, i));
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private MemorySegment slab(long ref){
+        return slabs.get((int)((ref - 1) >>> 32));
+    }
+
+    private static long offset(long ref){
+        return (ref - 1) & 0xFFFFFFFFL;
+    }
+
+    private boolean keyEquals(long ref, CharSequence key){
+        MemorySegment slab = slab(ref);
+        long at = offset(ref);
+        int stored = slab.get(KEY_LENGTH, at);
+        at += 4;
+        long end = at + stored;
+        for(int i = 0; i < key.length(); ){
+            int cp = codePoint(key, i);
+            int len = utf8Length(cp);
+            if(at + len > end){
+                return false;
+            }
+            for(int j = 0; j < len; j++){
+                if((slab.get(ValueLayout.JAVA_BYTE, at++) & 0xFF) != utf8Byte(cp, len, j)){
+                    return false;
+                }
+            }
+            i += Character.charCount(Character.codePointAt(key, i));
+        }
+        return at == end;
+    }
+
+    private long writeKey(CharSequence key){
+        int bytes = 0;
+        for(int i = 0; i < key.length(); ){
+            bytes += utf8Length(codePoint(key, i));
+            i += Character.charCount(Character.codePointAt(key, i));
+        }
+        long record = 4L + bytes;
+        if(slabs.isEmpty() || slabUsed + record > slabs.get(slabs.size() - 1).byteSize()){
+            slabs.add(keyArena.allocate(Math.max(SLAB_BYTES, record), 8));
+            slabUsed = 0;
+        }
+        MemorySegment slab = slabs.get(slabs.size() - 1);
+        long ref = (((long)(slabs.size() - 1) << 32) | slabUsed) + 1;
+        long at = slabUsed;
+        slab.set(KEY_LENGTH, at, bytes);
+        at += 4;
+        for(int i = 0; i < key.length(); ){
+            int cp = codePoint(key, i);
+            int len = utf8Length(cp);
+            for(int j = 0; j < len; j++){
+                slab.set(ValueLayout.JAVA_BYTE, at++, (byte)utf8Byte(cp, len, j));
+            }
+            i += Character.charCount(Character.codePointAt(key, i));
+        }
+        slabUsed = at;
+        return ref;
+    }
+
+    // ==================== TABLE ====================
+
+    private long findSlot(CharSequence key, int h){
+        long i = h & mask;
+        while(true){
+            long ref = table.get(LONG, i * SLOT_BYTES + 8);
+            if(ref == 0){
+                return -1 - i; //not found: encodes the free slot where it would go
+            }
+            if(table.get(INT, i * SLOT_BYTES) == h && keyEquals(ref, key)){
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void put(CharSequence key, int value){
+        checkOpen();
+        int h = hash(key);
+        long slot = findSlot(key, h);
+        if(slot >= 0){//exists
+            table.set(INT, slot * SLOT_BYTES + 4, value);
+            return;
+        }
+        if(n >= threshold){
+            rehash();
+            slot = findSlot(key, h);
+        }
+        long at = (-1 - slot) * SLOT_BYTES;
+        table.set(INT, at, h);
+        table.set(INT, at + 4, value);
+        table.set(LONG, at + 8, writeKey(key));
+        n++;
+    }
+
+    //returns missing when the key is absent, so no boxing is ever needed
+    public int get(CharSequence key, int missing){
+        checkOpen();
+        long slot = findSlot(key, hash(key));
+        return slot >= 0 ? table.get(INT, slot * SLOT_BYTES + 4) : missing;
+    }
+
+    public boolean containsKey(CharSequence key){
+        checkOpen();
+        return findSlot(key, hash(key)) >= 0;
+    }
+
+    public boolean remove(CharSequence key){
+        checkOpen();
+        long i = findSlot(key, hash(key));
+        if(i < 0){//key not found
+            return false;
+        }
+        //backward shift: move later entries of the cluster into the hole when their home allows it
+        long j = i;
+        while(true){
+            j = (j + 1) & mask;
+            long ref = table.get(LONG, j * SLOT_BYTES + 8);
+            if(ref == 0){
+                break;
+            }
+            long home = table.get(INT, j * SLOT_BYTES) & mask;
+            if(((j - home) & mask) >= ((j - i) & mask)){
+                MemorySegment.copy(table, j * SLOT_BYTES, table, i * SLOT_BYTES, SLOT_BYTES);
+                i = j;
+            }
+        }
+        table.asSlice(i * SLOT_BYTES, SLOT_BYTES).fill((byte)0);
+        n--;
+        return true;
+    }
+
+    //doubles the table; keys are not touched, only the 16-byte slots are moved
+    private void rehash(){
+        Arena oldArena = tableArena;
+        MemorySegment old = table;
+        long oldCapacity = mask + 1;
+        allocateTable(oldCapacity * 2);
+        for(long s = 0; s < oldCapacity; s++){
+            long ref = old.get(LONG, s * SLOT_BYTES + 8);
+            if(ref == 0){
+                continue;
+            }
+            int h = old.get(INT, s * SLOT_BYTES);
+            long i = h & mask;
+            while(table.get(LONG, i * SLOT_BYTES + 8) != 0){
+                i = (i + 1) & mask;
+            }
+            MemorySegment.copy(old, s * SLOT_BYTES, table, i * SLOT_BYTES, SLOT_BYTES);
+        }
+        oldArena.close();
+    }
+
+    public long size(){
+        return n;
+    }
+
+    public boolean isEmpty(){
+        return n == 0;
+    }
+
+    //native bytes held by the table and the key slabs
+    public long offHeapBytes(){
+        long bytes = table.byteSize();
+        for(MemorySegment slab : slabs){
+            bytes += slab.byteSize();
+        }
+        return bytes;
+    }
+
+    //copies every key back onto the heap; meant for debugging and small maps
+    public ArrayList<String> keySet(){
+        checkOpen();
+        ArrayList<String> keys = new ArrayList<>();
+        for(long s = 0; s <= mask; s++){
+            long ref = table.get(LONG, s * SLOT_BYTES + 8);
+            if(ref != 0){
+                MemorySegment slab = slab(ref);
+                int len = slab.get(KEY_LENGTH, offset(ref));
+                byte bytes[] = slab.asSlice(offset(ref) + 4, len).toArray(ValueLayout.JAVA_BYTE);
+                keys.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+        return keys;
+    }
+
+    private void checkOpen(){
+        if(table == null){
+            throw new IllegalStateException("map is closed");
+        }
+    }
+
+    @Override
+    public void close(){
+        if(table == null){
+            return;
+        }
+        table = null;
+        tableArena.close();
+        keyArena.close();
+        slabs.clear();
+    }
+
+    public static void main(String args[]){
+        try(OffHeapStringIntMap map = new OffHeapStringIntMap()){
+            map.put("India", 135);
+            map.put("China", 140);
+            map.put("USA", 40);
+            map.put("UK", 20);
+            map.put("T\u00fcrkiye", 85);
+            map.put("?", 1);
+            map.put("\uD876\uDC00", 2); //U+2D800, a supplementary key whose low 16 bits look like a surrogate
+            if(map.get("?", -1) != 1 || map.get("\uD876\uDC00", -1) != 2){
+                throw new AssertionError("\"?\" and U+2D800 were merged into one key");
+            }
+
+            ArrayList<String> keys = map.keySet();
+            for(String key : keys){
+                System.out.println(key + " -> " + map.get(key, -1));
+            }
+
+            map.remove("China");
+            System.out.println(map.get("China", -1));
+
+            for(int i = 0; i < 1_000_000; i++){
+                map.put("key-" + i, i);
+            }
+            System.out.println("entries: " + map.size() + ", off-heap MB: " + map.offHeapBytes() / (1 << 20));
+        }
+    }
+}
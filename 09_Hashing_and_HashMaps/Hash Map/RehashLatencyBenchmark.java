@@ -0,0 +1,70 @@
+import java.util.*;
+
+/**
+ * put() tail latency while the table grows
+ * Times every single put into an empty map (so it crosses many resizes) and
+ * prints the latency percentiles for:
+ *   - function.HashMap with incremental rehashing (default)
+ *   - function.HashMap migrating the whole table at once (stop-the-world)
+ *   - java.util.HashMap, which also resizes in one go
+ *
+ * Run:   javac *.java && java -Xms8g -Xmx8g RehashLatencyBenchmark 4000000
+ * (a fixed heap keeps GC resizing out of the numbers; max still includes GC pauses)
+ */
+public class RehashLatencyBenchmark {
+
+    public static void main(String args[]){
+        int size = args.length == 0 ? 4_000_000 : Integer.parseInt(args[0].replace("_", ""));
+        Integer keys[] = new Integer[size];
+        Random random = new Random(42);
+        for(int i = 0; i < size; i++){
+            keys[i] = random.nextInt();
+        }
+        long latencies[] = new long[size];
+
+        for(int round = 0; round < 3; round++){//warm-up
+            measure("incremental", new function.HashMap<>(), keys, latencies, false);
+            measure("stop-the-world", new function.HashMap<>(Integer.MAX_VALUE), keys, latencies, false);
+            measureJdk(keys, latencies, false);
+        }
+        System.out.printf("%-16s %10s %10s %10s %12s %12s %12s%n", "engine", "p50(ns)", "p99(ns)", "p999(ns)", "p9999(ns)", "max(ns)", "total(ms)");
+        measure("incremental", new function.HashMap<>(), keys, latencies, true);
+        measure("stop-the-world", new function.HashMap<>(Integer.MAX_VALUE), keys, latencies, true);
+        measureJdk(keys, latencies, true);
+    }
+
+    private static void measure(String name, function.HashMap<Integer, Integer> map, Integer keys[], long latencies[], boolean print){
+        long start = System.nanoTime();
+        for(int i = 0; i < keys.length; i++){
+            long t = System.nanoTime();
+            map.put(keys[i], i);
+            latencies[i] = System.nanoTime() - t;
+        }
+        long total = System.nanoTime() - start;
+        if(print) report(name, latencies, total);
+    }
+
+    private static void measureJdk(Integer keys[], long latencies[], boolean print){
+        java.util.HashMap<Integer, Integer> map = new java.util.HashMap<>();
+        long start = System.nanoTime();
+        for(int i = 0; i < keys.length; i++){
+            long t = System.nanoTime();
+            map.put(keys[i], i);
+            latencies[i] = System.nanoTime() - t;
+        }
+        long total = System.nanoTime() - start;
+        if(print) report("java.util", latencies, total);
+    }
+
+    private static void report(String name, long latencies[], long total){
+        long sorted[] = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-16s %10d %10d %10d %12d %12d %12.1f%n", name,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                percentile(sorted, 0.9999), sorted[sorted.length - 1], total / 1e6);
+    }
+
+    private static long percentile(long sorted[], double p){
+        return sorted[(int)Math.min(sorted.length - 1, (long)(p * sorted.length))];
+    }
+}
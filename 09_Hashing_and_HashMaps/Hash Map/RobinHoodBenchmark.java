@@ -0,0 +1,73 @@
+import java.util.*;
+
+/**
+ * Chained function.HashMap vs open-addressing RobinHoodHashMap
+ * Reports ns/op for put, get (hit), get (miss) and remove at each size.
+ *
+ * Run:   javac *.java && java -Xmx16g RobinHoodBenchmark 1000000 10000000 50000000
+ * (no arguments = 1M, 5M and 10M entries; 50M needs a large heap for the chained map)
+ */
+public class RobinHoodBenchmark {
+
+    public static void main(String args[]){
+        int sizes[] = args.length == 0 ? new int[]{1_000_000, 5_000_000, 10_000_000} : new int[args.length];
+        for(int i = 0; i < args.length; i++){
+            sizes[i] = Integer.parseInt(args[i].replace("_", ""));
+        }
+
+        //warm up both engines so the JIT has compiled the hot paths
+        for(int i = 0; i < 3; i++){
+            run(200_000, false);
+        }
+        System.out.printf("%-10s %-10s %10s %10s %10s %10s%n", "entries", "engine", "put", "get-hit", "get-miss", "remove");
+        for(int size : sizes){
+            run(size, true);
+        }
+    }
+
+    private static void run(int size, boolean print){
+        //both engines get the very same boxed keys, so neither pays for extra allocations
+        Integer keys[] = new Integer[size];
+        Integer missing[] = new Integer[size];
+        Random random = new Random(42);
+        for(int i = 0; i < size; i++){
+            keys[i] = random.nextInt() | 1; //odd values are present
+            missing[i] = keys[i] ^ 1; //even values are absent
+        }
+
+        long sink = 0;
+
+        function.HashMap<Integer, Integer> chained = new function.HashMap<>();
+        long t0 = System.nanoTime();
+        for(Integer key : keys) chained.put(key, key);
+        long t1 = System.nanoTime();
+        for(Integer key : keys) sink += chained.get(key);
+        long t2 = System.nanoTime();
+        for(Integer key : missing) if(chained.containsKey(key)) sink++;
+        long t3 = System.nanoTime();
+        for(int i = 0; i < size; i += 2) chained.remove(keys[i]);
+        long t4 = System.nanoTime();
+        if(print) report(size, "chained", t0, t1, t2, t3, t4);
+        chained = null;
+
+        RobinHoodHashMap<Integer, Integer> robin = new RobinHoodHashMap<>();
+        t0 = System.nanoTime();
+        for(Integer key : keys) robin.put(key, key);
+        t1 = System.nanoTime();
+        for(Integer key : keys) sink += robin.get(key);
+        t2 = System.nanoTime();
+        for(Integer key : missing) if(robin.containsKey(key)) sink++;
+        t3 = System.nanoTime();
+        for(int i = 0; i < size; i += 2) robin.remove(keys[i]);
+        t4 = System.nanoTime();
+        if(print) report(size, "robinhood", t0, t1, t2, t3, t4);
+
+        if(sink == 42) System.out.println(); //keeps the loops from being optimised away
+    }
+
+    private static void report(int size, String engine, long t0, long t1, long t2, long t3, long t4){
+        System.out.printf("%-10d %-10s %10.1f %10.1f %10.1f %10.1f%n", size, engine,
+                (double)(t1 - t0) / size, (double)(t2 - t1) / size,
+                (double)(t3 - t2) / size, (double)(t4 - t3) / (size / 2));
+    }
+}
@@ -0,0 +1,198 @@
+import java.util.*;
+
+/**
+ * Open-addressing HashMap with Robin Hood displacement
+ * Same put/get/remove/containsKey/keySet API as function.HashMap, but the
+ * entries live in flat arrays instead of Node objects inside LinkedList buckets.
+ *
+ * - Linear probing: a key is stored at its home slot or the next free one after it
+ * - Robin Hood: while inserting, a key that is further from its home slot
+ *   ("poorer") takes the slot of a key that is closer to home ("richer"),
+ *   which keeps every probe sequence short and lets a miss stop early
+ * - Backward-shift deletion: after a remove the following entries are moved one
+ *   slot back, so no tombstones are needed
+ *
+ * Time Complexity: O(1) expected for put/get/remove/containsKey
+ * Space Complexity: O(n) - three parallel arrays, no per-entry allocation
+ */
+public class RobinHoodHashMap<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double MAX_LOAD = 0.875;
+
+    private int n; //entries
+    private int mask; //capacity - 1, capacity is a power of two
+    private int threshold;
+    private int hashes[]; //0 = empty slot
+    private Object keys[];
+    private Object values[];
+
+    public RobinHoodHashMap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RobinHoodHashMap(int expectedSize){
+        int capacity = DEFAULT_CAPACITY;
+        while(capacity * MAX_LOAD < expectedSize){
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity){
+        this.mask = capacity - 1;
+        this.threshold = (int)(capacity * MAX_LOAD);
+        this.hashes = new int[capacity];
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+    }
+
+    //spreads the high bits into the low bits used by the mask, never returns 0
+    private static int hashfunction(Object key){
+        int h = key.hashCode() * 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+
+    //how far the entry with hash h sits from its home slot when stored at index i
+    private int probeDistance(int h, int i){
+        return (i - (h & mask)) & mask;
+    }
+
+    private int findSlot(Object key){
+        int h = hashfunction(key);
+        int i = h & mask;
+        for(int dist = 0; ; dist++){
+            int sh = hashes[i];
+            if(sh == 0 || probeDistance(sh, i) < dist){//a richer entry: the key is not here
+                return -1;
+            }
+            if(sh == h && key.equals(keys[i])){
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void put(K key, V value){
+        int slot = findSlot(key);
+        if(slot != -1){//exists
+            values[slot] = value;
+            return;
+        }
+        if(n >= threshold){
+            rehash();
+        }
+        insert(hashfunction(key), key, value);
+        n++;
+    }
+
+    //places a key known to be absent, swapping with richer entries on the way
+    private void insert(int h, Object key, Object value){
+        int i = h & mask;
+        int dist = 0;
+        while(true){
+            int sh = hashes[i];
+            if(sh == 0){
+                hashes[i] = h;
+                keys[i] = key;
+                values[i] = value;
+                return;
+            }
+            int existing = probeDistance(sh, i);
+            if(existing < dist){//steal from the rich
+                Object k = keys[i];
+                Object v = values[i];
+                hashes[i] = h;
+                keys[i] = key;
+                values[i] = value;
+                h = sh;
+                key = k;
+                value = v;
+                dist = existing;
+            }
+            i = (i + 1) & mask;
+            dist++;
+        }
+    }
+
+    private void rehash(){
+        int oldHashes[] = hashes;
+        Object oldKeys[] = keys;
+        Object oldValues[] = values;
+        allocate(oldHashes.length * 2);
+        for(int i = 0; i < oldHashes.length; i++){
+            if(oldHashes[i] != 0){
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key){
+        int slot = findSlot(key);
+        return slot == -1 ? null : (V) values[slot];
+    }
+
+    public boolean containsKey(K key){
+        return findSlot(key) != -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(K key){
+        int slot = findSlot(key);
+        if(slot == -1){//key not found
+            return null;
+        }
+        V old = (V) values[slot];
+        //backward shift: pull every displaced successor one slot closer to home
+        int i = slot;
+        int next = (i + 1) & mask;
+        while(hashes[next] != 0 && probeDistance(hashes[next], next) > 0){
+            hashes[i] = hashes[next];
+            keys[i] = keys[next];
+            values[i] = values[next];
+            i = next;
+            next = (next + 1) & mask;
+        }
+        hashes[i] = 0;
+        keys[i] = null;
+        values[i] = null;
+        n--;
+        return old;
+    }
+
+    public int size(){
+        return n;
+    }
+
+    public boolean isEmpty(){
+        return n == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ArrayList<K> keySet(){
+        ArrayList<K> result = new ArrayList<>(n);
+        for(int i = 0; i < hashes.length; i++){
+            if(hashes[i] != 0){
+                result.add((K) keys[i]);
+            }
+        }
+        return result;
+    }
+
+    public static void main(String args[]){
+        RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<>();
+        map.put("India", 135);
+        map.put("China", 140);
+        map.put("USA", 40);
+        map.put("UK", 20);
+
+        ArrayList<String> keys = map.keySet();
+        for(String key : keys){
+            System.out.println(key + " -> " + map.get(key));
+        }
+
+        map.remove("China");
+        System.out.println(map.get("China"));
+    }
+}
@@ -0,0 +1,258 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe sibling of function.HashMap (lock striping)
+ * The keys are split over independent segments by hash. Each segment owns its
+ * own chained table and its own lock, so writers on different segments never
+ * wait for each other.
+ *
+ * - get/containsKey take no lock: bucket heads, next links and values are
+ *   volatile, so a reader always sees a consistent chain
+ * - put/remove lock only the segment of the key
+ * - Resize is per segment: one segment doubles its table under its own lock
+ *   while every other segment keeps serving reads and writes. The new table is
+ *   built from copied nodes, so readers still walking the old one are unaffected
+ *
+ * Time Complexity: O(1) expected for all operations
+ * Space Complexity: O(n)
+ */
+public class StripedHashMap<K, V> {
+    private static final int DEFAULT_SEGMENTS = 64;
+    private static final int MAX_SEGMENTS = 1 << 16; //more locks than this only cost memory
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+    private static final double MAX_LOAD = 0.75;
+
+    private static final class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next){
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    //one lock + one table; extending the lock saves an object per segment
+    @SuppressWarnings("serial")
+    private static final class Segment<K, V> extends ReentrantLock {
+        volatile AtomicReferenceArray<Node<K, V>> table;
+        volatile int count;
+        int threshold;
+
+        Segment(int capacity){
+            setTable(new AtomicReferenceArray<>(capacity));
+        }
+
+        private void setTable(AtomicReferenceArray<Node<K, V>> table){
+            this.threshold = (int)(table.length() * MAX_LOAD);
+            this.table = table;
+        }
+
+        Node<K, V> find(int hash, Object key){
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            for(Node<K, V> e = tab.get(hash & (tab.length() - 1)); e != null; e = e.next){
+                if(e.hash == hash && key.equals(e.key)){
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        V put(int hash, K key, V value){
+            lock();
+            try{
+                Node<K, V> e = find(hash, key);
+                if(e != null){//exists
+                    V old = e.value;
+                    e.value = value;
+                    return old;
+                }
+                if(count + 1 > threshold){
+                    rehash();
+                }
+                AtomicReferenceArray<Node<K, V>> tab = table;
+                int i = hash & (tab.length() - 1);
+                tab.set(i, new Node<>(hash, key, value, tab.get(i)));
+                count++;
+                return null;
+            }
+            finally{
+                unlock();
+            }
+        }
+
+        V remove(int hash, Object key){
+            lock();
+            try{
+                AtomicReferenceArray<Node<K, V>> tab = table;
+                int i = hash & (tab.length() - 1);
+                Node<K, V> prev = null;
+                for(Node<K, V> e = tab.get(i); e != null; prev = e, e = e.next){
+                    if(e.hash == hash && key.equals(e.key)){
+                        if(prev == null){
+                            tab.set(i, e.next);
+                        }
+                        else{
+                            prev.next = e.next; //a reader standing on e still reaches e.next
+                        }
+                        count--;
+                        return e.value;
+                    }
+                }
+                return null;
+            }
+            finally{
+                unlock();
+            }
+        }
+
+        //called with the lock held; copies the nodes so the old table stays valid for readers
+        private void rehash(){
+            AtomicReferenceArray<Node<K, V>> oldTab = table;
+            AtomicReferenceArray<Node<K, V>> newTab = new AtomicReferenceArray<>(oldTab.length() * 2);
+            int mask = newTab.length() - 1;
+            for(int i = 0; i < oldTab.length(); i++){
+                for(Node<K, V> e = oldTab.get(i); e != null; e = e.next){
+                    int bi = e.hash & mask;
+                    newTab.set(bi, new Node<>(e.hash, e.key, e.value, newTab.get(bi)));
+                }
+            }
+            setTable(newTab);
+        }
+
+        void addKeys(ArrayList<K> keys){
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            for(int i = 0; i < tab.length(); i++){
+                for(Node<K, V> e = tab.get(i); e != null; e = e.next){
+                    keys.add(e.key);
+                }
+            }
+        }
+    }
+
+    private final Segment<K, V> segments[];
+    private final int segmentShift;
+
+    public StripedHashMap(){
+        this(DEFAULT_SEGMENTS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Segment<K, V>[] newSegments(int count){
+        return (Segment<K, V>[]) new Segment<?, ?>[count];
+    }
+
+    //concurrencyLevel = expected number of concurrently writing threads, rounded up to a power of two
+    //and capped at MAX_SEGMENTS
+    public StripedHashMap(int concurrencyLevel){
+        concurrencyLevel = Math.min(concurrencyLevel, MAX_SEGMENTS);
+        int count = 1;
+        int bits = 0;
+        while(count < concurrencyLevel){
+            count <<= 1;
+            bits++;
+        }
+        this.segments = newSegments(count);
+        this.segmentShift = 32 - bits;
+        for(int i = 0; i < count; i++){
+            segments[i] = new Segment<>(INITIAL_SEGMENT_CAPACITY);
+        }
+    }
+
+    //murmur3 finalizer: the top bits pick the segment, the low bits pick the bucket
+    private static int hashfunction(Object key){
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private Segment<K, V> segmentFor(int hash){
+        return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    public V put(K key, V value){
+        int h = hashfunction(key);
+        return segmentFor(h).put(h, key, value);
+    }
+
+    public V get(K key){
+        int h = hashfunction(key);
+        Node<K, V> e = segmentFor(h).find(h, key);
+        return e == null ? null : e.value;
+    }
+
+    public boolean containsKey(K key){
+        int h = hashfunction(key);
+        return segmentFor(h).find(h, key) != null;
+    }
+
+    public V remove(K key){
+        int h = hashfunction(key);
+        return segmentFor(h).remove(h, key);
+    }
+
+    //a moment-in-time estimate while other threads are writing
+    public int size(){
+        int n = 0;
+        for(Segment<K, V> segment : segments){
+            n += segment.count;
+        }
+        return n;
+    }
+
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    //weakly consistent: keys written concurrently may or may not be included
+    public ArrayList<K> keySet(){
+        ArrayList<K> keys = new ArrayList<>();
+        for(Segment<K, V> segment : segments){
+            segment.addKeys(keys);
+        }
+        return keys;
+    }
+
+    public static void main(String args[]) throws InterruptedException{
+        StripedHashMap<String, Integer> map = new StripedHashMap<>();
+        map.put("India", 135);
+        map.put("China", 140);
+        map.put("USA", 40);
+        map.put("UK", 20);
+
+        ArrayList<String> keys = map.keySet();
+        for(String key : keys){
+            System.out.println(key + " -> " + map.get(key));
+        }
+
+        map.remove("China");
+        System.out.println(map.get("China"));
+
+        //4 threads writing disjoint keys at the same time
+        StripedHashMap<Integer, Integer> shared = new StripedHashMap<>();
+        Thread threads[] = new Thread[4];
+        for(int t = 0; t < threads.length; t++){
+            int base = t * 100_000;
+            threads[t] = new Thread(() -> {
+                for(int i = 0; i < 100_000; i++){
+                    shared.put(base + i, i);
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread : threads){
+            thread.join();
+        }
+        System.out.println("size after 4 x 100000 concurrent puts: " + shared.size());
+    }
+}
@@ -0,0 +1,283 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Swiss table (Abseil flat_hash_map layout)
+ * Next to the key/value arrays sits one control byte per slot:
+ *   0x80 = empty, 0xFE = deleted, 0..127 = full, holding 7 bits of the hash (H2)
+ * The rest of the hash (H1) picks a group of 16 slots. A lookup compares the
+ * tag against all 16 control bytes of a group at once and only touches the
+ * keys whose tag matched, so even at 7/8 load most misses never read a key.
+ *
+ * The 16-byte compare is done by a GroupMatcher:
+ * - VectorGroupMatcher (Vector/): jdk.incubator.vector ByteVector compares (SIMD),
+ *   loaded by name when it was compiled and the module is present (see its
+ *   header for the build line)
+ * - SwarGroupMatcher: scalar fallback, two 64-bit words per group (SWAR)
+ *
+ * Time Complexity: O(1) expected per operation
+ * Space Complexity: O(n), 1 byte of metadata per slot
+ */
+public class SwissHashMap<K, V> {
+    static final int GROUP = 16;
+    static final byte EMPTY = (byte)0x80;
+    static final byte DELETED = (byte)0xFE;
+    private static final int MAX_LOAD_NUM = 7, MAX_LOAD_DEN = 8;
+
+    //finds the slots of one 16-byte group; bit i of the result = slot base + i
+    public interface GroupMatcher{
+        int match(byte ctrl[], int base, byte tag);
+        int matchEmpty(byte ctrl[], int base);
+        int matchEmptyOrDeleted(byte ctrl[], int base);
+    }
+
+    //SWAR fallback: the group is read as two little-endian longs
+    static final class SwarGroupMatcher implements GroupMatcher{
+        private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+        private static final long LSB = 0x0101010101010101L;
+        private static final long MSB = 0x8080808080808080L;
+
+        //high bit of each byte -> one bit per byte (a scalar "movemask")
+        private static int movemask(long highBits){
+            return (int)(((highBits >>> 7) * 0x0102040810204080L) >>> 56);
+        }
+
+        //high bit set in bytes equal to tag (may flag a byte right above a match; keys are compared anyway)
+        private static long matchWord(long word, byte tag){
+            long x = word ^ (LSB * (tag & 0xFF));
+            return (x - LSB) & ~x & MSB;
+        }
+
+        public int match(byte ctrl[], int base, byte tag){
+            long lo = (long)LONGS.get(ctrl, base);
+            long hi = (long)LONGS.get(ctrl, base + 8);
+            return movemask(matchWord(lo, tag)) | movemask(matchWord(hi, tag)) << 8;
+        }
+
+        //empty = high bit set and bit 1 clear (deleted 0xFE has bit 1 set)
+        public int matchEmpty(byte ctrl[], int base){
+            long lo = (long)LONGS.get(ctrl, base);
+            long hi = (long)LONGS.get(ctrl, base + 8);
+            return movemask(lo & ~(lo << 6) & MSB) | movemask(hi & ~(hi << 6) & MSB) << 8;
+        }
+
+        public int matchEmptyOrDeleted(byte ctrl[], int base){
+            long lo = (long)LONGS.get(ctrl, base);
+            long hi = (long)LONGS.get(ctrl, base + 8);
+            return movemask(lo & MSB) | movemask(hi & MSB) << 8;
+        }
+    }
+
+    //the SIMD matcher when it can be loaded, otherwise SWAR
+    static GroupMatcher defaultMatcher(){
+        try{
+            return (GroupMatcher) Class.forName("VectorGroupMatcher").getDeclaredConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException | LinkageError e){//not compiled, or jdk.incubator.vector not added
+            return new SwarGroupMatcher();
+        }
+    }
+
+    private final GroupMatcher matcher;
+    private byte ctrl[];
+    private Object keys[];
+    private Object values[];
+    private int groupMask; //groups - 1
+    private int n; //full slots
+    private int deleted;
+    private int growthLeft; //free slots before the 7/8 limit
+
+    public SwissHashMap(){
+        this(16);
+    }
+
+    public SwissHashMap(int expectedSize){
+        this(expectedSize, defaultMatcher());
+    }
+
+    public SwissHashMap(int expectedSize, GroupMatcher matcher){
+        this.matcher = matcher;
+        int capacity = GROUP;
+        while((long)capacity * MAX_LOAD_NUM / MAX_LOAD_DEN < expectedSize){
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity){
+        ctrl = new byte[capacity];
+        Arrays.fill(ctrl, EMPTY);
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        groupMask = capacity / GROUP - 1;
+        growthLeft = capacity / MAX_LOAD_DEN * MAX_LOAD_NUM;
+        n = 0;
+        deleted = 0;
+    }
+
+    public String matcherName(){
+        return matcher.getClass().getSimpleName();
+    }
+
+    private static int hashfunction(Object key){
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static int h1(int h){
+        return h >>> 7;
+    }
+
+    private static byte h2(int h){
+        return (byte)(h & 0x7F);
+    }
+
+    private int findSlot(Object key, int h){
+        byte tag = h2(h);
+        int g = h1(h) & groupMask;
+        for(int step = 1; ; step++){
+            int base = g * GROUP;
+            for(int m = matcher.match(ctrl, base, tag); m != 0; m &= m - 1){
+                int slot = base + Integer.numberOfTrailingZeros(m);
+                if(key.equals(keys[slot])){
+                    return slot;
+                }
+            }
+            if(matcher.matchEmpty(ctrl, base) != 0){//a probe never continues past a group with an empty slot
+                return -1;
+            }
+            g = (g + step) & groupMask; //triangular probing visits every group
+        }
+    }
+
+    //first empty or deleted slot on the probe sequence of h
+    private int findFree(int h){
+        int g = h1(h) & groupMask;
+        for(int step = 1; ; step++){
+            int base = g * GROUP;
+            int m = matcher.matchEmptyOrDeleted(ctrl, base);
+            if(m != 0){
+                return base + Integer.numberOfTrailingZeros(m);
+            }
+            g = (g + step) & groupMask;
+        }
+    }
+
+    public void put(K key, V value){
+        int h = hashfunction(key);
+        int slot = findSlot(key, h);
+        if(slot != -1){//exists
+            values[slot] = value;
+            return;
+        }
+        slot = findFree(h);
+        if(ctrl[slot] == EMPTY && growthLeft == 0){
+            rehash();
+            slot = findFree(h);
+        }
+        if(ctrl[slot] == EMPTY){
+            growthLeft--;
+        }
+        else{
+            deleted--;
+        }
+        ctrl[slot] = h2(h);
+        keys[slot] = key;
+        values[slot] = value;
+        n++;
+    }
+
+    //doubles the table, or just rebuilds it in place when tombstones are eating the space
+    private void rehash(){
+        byte oldCtrl[] = ctrl;
+        Object oldKeys[] = keys;
+        Object oldValues[] = values;
+        int capacity = oldCtrl.length;
+        allocate(deleted > capacity / 4 ? capacity : capacity * 2);
+        for(int i = 0; i < oldCtrl.length; i++){
+            if(oldCtrl[i] >= 0){
+                int h = hashfunction(oldKeys[i]);
+                int slot = findFree(h);
+                ctrl[slot] = h2(h);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                growthLeft--;
+                n++;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key){
+        int slot = findSlot(key, hashfunction(key));
+        return slot == -1 ? null : (V) values[slot];
+    }
+
+    public boolean containsKey(K key){
+        return findSlot(key, hashfunction(key)) != -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(K key){
+        int slot = findSlot(key, hashfunction(key));
+        if(slot == -1){//key not found
+            return null;
+        }
+        V old = (V) values[slot];
+        //if the group still has an empty slot no probe goes past it, so the slot can be empty again
+        if(matcher.matchEmpty(ctrl, slot & ~(GROUP - 1)) != 0){
+            ctrl[slot] = EMPTY;
+            growthLeft++;
+        }
+        else{
+            ctrl[slot] = DELETED;
+            deleted++;
+        }
+        keys[slot] = null;
+        values[slot] = null;
+        n--;
+        return old;
+    }
+
+    public int size(){
+        return n;
+    }
+
+    public boolean isEmpty(){
+        return n == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ArrayList<K> keySet(){
+        ArrayList<K> result = new ArrayList<>(n);
+        for(int i = 0; i < ctrl.length; i++){
+            if(ctrl[i] >= 0){
+                result.add((K) keys[i]);
+            }
+        }
+        return result;
+    }
+
+    public static void main(String args[]){
+        SwissHashMap<String, Integer> map = new SwissHashMap<>();
+        System.out.println("group matcher: " + map.matcherName());
+        map.put("India", 135);
+        map.put("China", 140);
+        map.put("USA", 40);
+        map.put("UK", 20);
+
+        ArrayList<String> keys = map.keySet();
+        for(String key : keys){
+            System.out.println(key + " -> " + map.get(key));
+        }
+
+        map.remove("China");
+        System.out.println(map.get("China"));
+    }
+}
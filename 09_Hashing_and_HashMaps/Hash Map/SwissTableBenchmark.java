@@ -0,0 +1,78 @@
+import java.util.*;
+
+/**
+ * Swiss table (SIMD and SWAR group matching) vs RobinHoodHashMap vs java.util.HashMap
+ * Every table is presized and filled to 7/8 of a 2^k capacity, then timed on
+ * lookups of present keys (hit) and absent keys (miss). Prints ns/op, best of 5.
+ *
+ * Run (SIMD + SWAR):  javac *.java && javac --add-modules jdk.incubator.vector -cp . -d . Vector/VectorGroupMatcher.java
+ *                     java --add-modules jdk.incubator.vector SwissTableBenchmark [log2 capacity]
+ * Run (SWAR only):    javac *.java && java SwissTableBenchmark
+ * (no argument = 2^20 slots)
+ */
+public class SwissTableBenchmark {
+
+    interface Lookup{
+        boolean containsKey(Integer key);
+    }
+
+    public static void main(String args[]){
+        int log2 = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int size = (1 << log2) / 8 * 7; //load 0.875
+
+        Integer keys[] = new Integer[size];
+        Integer missing[] = new Integer[size];
+        Random random = new Random(42);
+        for(int i = 0; i < size; i++){
+            keys[i] = random.nextInt() | 1; //odd values are present
+            missing[i] = keys[i] ^ 1; //even values are absent
+        }
+        //look the keys up in a different order than they were inserted
+        Integer probes[] = keys.clone();
+        Collections.shuffle(Arrays.asList(probes), random);
+
+        Map<String, Lookup> engines = new LinkedHashMap<>();
+        SwissHashMap.GroupMatcher simd = SwissHashMap.defaultMatcher();
+        if(!(simd instanceof SwissHashMap.SwarGroupMatcher)){
+            SwissHashMap<Integer, Integer> swiss = new SwissHashMap<>(size, simd);
+            for(Integer key : keys) swiss.put(key, key);
+            engines.put("swiss-simd", swiss::containsKey);
+        }
+        else{
+            System.out.println("jdk.incubator.vector not available, skipping swiss-simd");
+        }
+        SwissHashMap<Integer, Integer> swar = new SwissHashMap<>(size, new SwissHashMap.SwarGroupMatcher());
+        for(Integer key : keys) swar.put(key, key);
+        engines.put("swiss-swar", swar::containsKey);
+        RobinHoodHashMap<Integer, Integer> robin = new RobinHoodHashMap<>();
+        for(Integer key : keys) robin.put(key, key);
+        engines.put("robinhood", robin::containsKey);
+        HashMap<Integer, Integer> java = new HashMap<>(size * 2);
+        for(Integer key : keys) java.put(key, key);
+        engines.put("java.util", java::containsKey);
+
+        System.out.printf("%-12s %10s %10s   (n=%d, load 0.875)%n", "engine", "hit", "miss", size);
+        for(Map.Entry<String, Lookup> e : engines.entrySet()){
+            double hit = best(e.getValue(), probes, true);
+            double miss = best(e.getValue(), missing, false);
+            System.out.printf("%-12s %10.1f %10.1f%n", e.getKey(), hit, miss);
+        }
+    }
+
+    //ns per lookup of the fastest of 5 runs (the first runs double as JIT warm-up)
+    private static double best(Lookup map, Integer keys[], boolean expected){
+        long best = Long.MAX_VALUE;
+        for(int run = 0; run < 5; run++){
+            int found = 0;
+            long t = System.nanoTime();
+            for(Integer key : keys){
+                if(map.containsKey(key)) found++;
+            }
+            best = Math.min(best, System.nanoTime() - t);
+            if(found != (expected ? keys.length : 0)){
+                throw new IllegalStateException("wrong lookup result");
+            }
+        }
+        return (double)best / keys.length;
+    }
+}
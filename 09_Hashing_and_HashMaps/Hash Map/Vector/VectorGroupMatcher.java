@@ -0,0 +1,32 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD group matcher for SwissHashMap
+ * Loads the 16 control bytes of a group into one 128-bit ByteVector and
+ * compares them all in a single instruction; toLong() turns the lane mask
+ * into the bitmask SwissHashMap expects.
+ *
+ * Kept in its own directory so that javac *.java in Hash Map builds without the
+ * incubator module. Build it next to the other classes, from Hash Map:
+ *   javac *.java && javac --add-modules jdk.incubator.vector -cp . -d . Vector/VectorGroupMatcher.java
+ *   java --add-modules jdk.incubator.vector SwissTableBenchmark
+ * Without it SwissHashMap falls back to SwissHashMap.SwarGroupMatcher.
+ */
+public final class VectorGroupMatcher implements SwissHashMap.GroupMatcher {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_128;
+
+    public int match(byte ctrl[], int base, byte tag){
+        return (int) ByteVector.fromArray(SPECIES, ctrl, base).eq(tag).toLong();
+    }
+
+    public int matchEmpty(byte ctrl[], int base){
+        return (int) ByteVector.fromArray(SPECIES, ctrl, base).eq(SwissHashMap.EMPTY).toLong();
+    }
+
+    //empty (0x80) and deleted (0xFE) are the only negative control bytes
+    public int matchEmptyOrDeleted(byte ctrl[], int base){
+        return (int) ByteVector.fromArray(SPECIES, ctrl, base).compare(VectorOperators.LT, (byte)0).toLong();
+    }
+}
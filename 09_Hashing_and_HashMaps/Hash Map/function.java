@@ -1,120 +1,945 @@
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 public class function{
     static class HashMap<K, V> //genirics
     {
-        private class Node{
+        //a Node is its own Map.Entry, so streams and spliterators hand out nodes without copying them
+        private class Node implements Map.Entry<K, V>{
+            final int hash;
             K key;
             V value;
-            public Node(K key, V value){
+            public Node(int hash, K key, V value){
+                this.hash = hash;
                 this.key = key;
                 this.value = value;
             }
+
+            public K getKey(){
+                return key;
+            }
+
+            public V getValue(){
+                return value;
+            }
+
+            public V setValue(V value){
+                V old = this.value;
+                this.value = value;
+                return old;
+            }
+
+            public String toString(){
+                return key + "=" + value;
+            }
+        }
+
+        //what every bucket offers, a Chain or a TreeBin. List calls such as get(i) or remove(Object)
+        //exist on Chain only, so code must check for TreeBin first or it does not compile
+        private interface Bucket<N> extends Iterable<N>{
+            int size();
+        }
+
+        //a plain bucket, never longer than TREEIFY_THRESHOLD nodes
+        @SuppressWarnings("serial")
+        private class Chain extends LinkedList<Node> implements Bucket<Node>{
+            Chain(){
+            }
+
+            //a TreeBin that shrank to UNTREEIFY_THRESHOLD, in insertion order
+            Chain(TreeBin bin){
+                for(Node node : bin){
+                    add(node);
+                }
+            }
         }
 
+        //a bucket whose chain grew past TREEIFY_THRESHOLD: the nodes are indexed by an AVL tree
+        //ordered by hash, then Comparable, then insertion order, so colliding keys cost O(log n)
+        //compares instead of O(n). Like the JDK's TreeNode the tree nodes are also threaded in
+        //insertion order through prev/next, which iterator() and poll() read, so a delete
+        //unlinks in O(1) instead of a list scan
+        private class TreeBin implements Bucket<Node>{
+            private class TreeNode{
+                final Node node;
+                final long id; //breaks ties between keys with equal hash that cannot be compared
+                TreeNode left, right;
+                TreeNode prev, next; //insertion order
+                int height = 1;
+                TreeNode(Node node, long id){
+                    this.node = node;
+                    this.id = id;
+                }
+            }
+
+            private TreeNode root;
+            private TreeNode first, last;
+            private int count;
+            private long nextId;
+
+            TreeBin(Chain chain){
+                for(Node node : chain){
+                    insert(node);
+                }
+            }
+
+            void insert(Node node){
+                TreeNode t = new TreeNode(node, nextId++);
+                root = insertAt(root, t);
+                t.prev = last;
+                if(last == null){
+                    first = t;
+                }
+                else{
+                    last.next = t;
+                }
+                last = t;
+                count++;
+            }
+
+            Node find(int h, K key){
+                TreeNode t = findAt(root, h, key);
+                return t == null ? null : t.node;
+            }
+
+            void delete(Node node){
+                unlink(findAt(root, node.hash, node.key));
+            }
+
+            private void unlink(TreeNode t){
+                root = deleteAt(root, t);
+                if(t.prev == null){
+                    first = t.next;
+                }
+                else{
+                    t.prev.next = t.next;
+                }
+                if(t.next == null){
+                    last = t.prev;
+                }
+                else{
+                    t.next.prev = t.prev;
+                }
+                count--;
+            }
+
+            //removes and returns the oldest node, null when empty
+            Node poll(){
+                TreeNode t = first;
+                if(t == null){
+                    return null;
+                }
+                unlink(t);
+                return t.node;
+            }
+
+            public int size(){
+                return count;
+            }
+
+            public Iterator<Node> iterator(){
+                return new Iterator<Node>(){
+                    private TreeNode t = first;
+
+                    public boolean hasNext(){
+                        return t != null;
+                    }
+
+                    public Node next(){
+                        if(t == null){
+                            throw new NoSuchElementException();
+                        }
+                        Node node = t.node;
+                        t = t.next;
+                        return node;
+                    }
+                };
+            }
+
+            //hash first, then compareTo when both keys are Comparable of the same class, else 0
+            @SuppressWarnings({"rawtypes", "unchecked"})
+            private int compareKeys(int h1, K k1, int h2, K k2){
+                if(h1 != h2){
+                    return h1 < h2 ? -1 : 1;
+                }
+                if(k1 instanceof Comparable && k1.getClass() == k2.getClass()){
+                    return ((Comparable) k1).compareTo(k2);
+                }
+                return 0;
+            }
+
+            //total order used to place nodes in the tree
+            private int order(TreeNode a, TreeNode b){
+                int c = compareKeys(a.node.hash, a.node.key, b.node.hash, b.node.key);
+                return c != 0 ? c : Long.compare(a.id, b.id);
+            }
+
+            private TreeNode findAt(TreeNode p, int h, K key){
+                while(p != null){
+                    if(metrics != null){
+                        comparisons++;
+                    }
+                    if(p.node.hash == h && key.equals(p.node.key)){
+                        return p;
+                    }
+                    int c = compareKeys(h, key, p.node.hash, p.node.key);
+                    if(c < 0){
+                        p = p.left;
+                    }
+                    else if(c > 0){
+                        p = p.right;
+                    }
+                    else{//undecided: the key may sit on either side
+                        TreeNode q = findAt(p.right, h, key);
+                        if(q != null){
+                            return q;
+                        }
+                        p = p.left;
+                    }
+                }
+                return null;
+            }
+
+            private int height(TreeNode t){
+                return t == null ? 0 : t.height;
+            }
+
+            private void fixHeight(TreeNode t){
+                t.height = 1 + Math.max(height(t.left), height(t.right));
+            }
+
+            private TreeNode rotateRight(TreeNode y){
+                TreeNode x = y.left;
+                y.left = x.right;
+                x.right = y;
+                fixHeight(y);
+                fixHeight(x);
+                return x;
+            }
+
+            private TreeNode rotateLeft(TreeNode x){
+                TreeNode y = x.right;
+                x.right = y.left;
+                y.left = x;
+                fixHeight(x);
+                fixHeight(y);
+                return y;
+            }
+
+            private TreeNode balance(TreeNode t){
+                fixHeight(t);
+                int b = height(t.left) - height(t.right);
+                if(b > 1){
+                    if(height(t.left.left) < height(t.left.right)){
+                        t.left = rotateLeft(t.left);
+                    }
+                    return rotateRight(t);
+                }
+                if(b < -1){
+                    if(height(t.right.right) < height(t.right.left)){
+                        t.right = rotateRight(t.right);
+                    }
+                    return rotateLeft(t);
+                }
+                return t;
+            }
+
+            private TreeNode insertAt(TreeNode p, TreeNode t){
+                if(p == null){
+                    return t;
+                }
+                if(order(t, p) < 0){
+                    p.left = insertAt(p.left, t);
+                }
+                else{
+                    p.right = insertAt(p.right, t);
+                }
+                return balance(p);
+            }
+
+            private TreeNode deleteAt(TreeNode p, TreeNode t){
+                if(p == null){
+                    return null;
+                }
+                int c = order(t, p);
+                if(c < 0){
+                    p.left = deleteAt(p.left, t);
+                }
+                else if(c > 0){
+                    p.right = deleteAt(p.right, t);
+                }
+                else{//p == t
+                    if(p.left == null){
+                        return p.right;
+                    }
+                    if(p.right == null){
+                        return p.left;
+                    }
+                    TreeNode successor = p.right;
+                    while(successor.left != null){
+                        successor = successor.left;
+                    }
+                    successor.right = deleteMin(p.right);
+                    successor.left = p.left;
+                    p = successor;
+                }
+                return balance(p);
+            }
+
+            private TreeNode deleteMin(TreeNode p){
+                if(p.left == null){
+                    return p.right;
+                }
+                p.left = deleteMin(p.left);
+                return balance(p);
+            }
+        }
+
+        private static final int REHASH_STEPS = 1; //non-empty buckets moved per operation
+        private static final int TREEIFY_THRESHOLD = 8; //chain length that turns a bucket into a TreeBin
+        private static final int UNTREEIFY_THRESHOLD = 6; //TreeBin size that turns it back into a chain
+
         private int n; //nodes
-        private final int N; //buckets=size=buckets.length
-        private LinkedList<Node> buckets[];
+        private int N; //buckets=size=buckets.length, always a power of two
+        private Bucket<Node> buckets[]; //null bucket = empty
+        private Bucket<Node> growBuckets[]; //table of size 2N while a rehash is running, else null
+        private int rehashIndex = -1; //next bucket of buckets[] to migrate, -1 = not rehashing
+        private final int rehashSteps;
+        private final HashStrategy<? super K> strategy;
+        private HashMapMetrics metrics; //null = instrumentation off, the hot paths only pay a null check
+        private int comparisons; //nodes looked at by the current lookup, read when metrics != null
+        private BlockedBloomFilter bloom; //null = off; keeps removed keys until the next rehash rebuilds it
+        private BlockedBloomFilter growBloom; //filled while the nodes move to growBuckets, replaces bloom after
+        private int bloomBitsPerKey;
 
-        @SuppressWarnings("unchecked")
         public HashMap(){
+            this(REHASH_STEPS);
+        }
+
+        //rehashSteps = Integer.MAX_VALUE migrates the whole table inside a single put (stop-the-world)
+        public HashMap(int rehashSteps){
+            this(rehashSteps, HashStrategy.spread());
+        }
+
+        public HashMap(HashStrategy<? super K> strategy){
+            this(REHASH_STEPS, strategy);
+        }
+
+        public HashMap(int rehashSteps, HashStrategy<? super K> strategy){
             this.N = 4;
-            this.buckets = new LinkedList[N];
-            for(int i = 0; i < buckets.length; i++){
-               this.buckets[i] = new LinkedList<>();
-            }
+            this.buckets = newTable(N);
+            this.rehashSteps = rehashSteps;
+            this.strategy = strategy;
         }
-        
+
+        //the bucket is hash & (N-1), so the strategy must leave well-mixed low bits
         private int hashfunction(K key){
-            int bi = key.hashCode();
-            return Math.abs(bi) % N;
+            return strategy.hash(key);
+        }
+
+        private static int indexFor(int h, int size){
+            return h & (size - 1);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <N> Bucket<N>[] newTable(int size){
+            return (Bucket<N>[]) new Bucket<?>[size];
         }
 
-        private int searchInLL(K key, int bi){
-            LinkedList<Node> ll = buckets[bi];
-            for(int i=0;i<ll.size();i++){
-                if(ll.get(i).key == key){
-                    return i;
+        private Node searchInLL(K key, int h, Bucket<Node> ll){
+            if(ll == null){
+                return null;
+            }
+            if(ll instanceof TreeBin){
+                return ((TreeBin) ll).find(h, key);
+            }
+            if(metrics != null){
+                return countedSearch(key, h, ll);
+            }
+            for(Node node : ll){
+                if(node.hash == h && key.equals(node.key)){
+                    return node;
                 }
             }
-            return -1;
+            return null;
         }
-        
-        @SuppressWarnings("unchecked")
+
+        //searchInLL with every visited node counted, only used while metrics are on
+        private Node countedSearch(K key, int h, Bucket<Node> ll){
+            for(Node node : ll){
+                comparisons++;
+                if(node.hash == h && key.equals(node.key)){
+                    return node;
+                }
+            }
+            return null;
+        }
+
+        private void addToBucket(Bucket<Node> table[], Node node){
+            int bi = indexFor(node.hash, table.length);
+            Bucket<Node> ll = table[bi];
+            if(ll instanceof TreeBin){
+                ((TreeBin) ll).insert(node);
+                return;
+            }
+            Chain chain = (Chain) ll;
+            if(chain == null){
+                table[bi] = chain = new Chain();
+            }
+            chain.add(node);
+            if(chain.size() > TREEIFY_THRESHOLD){
+                table[bi] = new TreeBin(chain);
+            }
+        }
+
+        private void removeFromBucket(Bucket<Node> table[], Node node){
+            int bi = indexFor(node.hash, table.length);
+            Bucket<Node> ll = table[bi];
+            if(ll instanceof TreeBin){
+                TreeBin bin = (TreeBin) ll;
+                bin.delete(node);
+                if(bin.size() <= UNTREEIFY_THRESHOLD){
+                    table[bi] = new Chain(bin);
+                }
+            }
+            else{
+                ((Chain) ll).remove(node);
+            }
+        }
+
+        public boolean isRehashing(){
+            return rehashIndex != -1;
+        }
+
+        //allocates the doubled table; the nodes are moved over later by rehashStep()
         private void rehash(){
-            LinkedList<Node> oldBucket[] = buckets;
-            buckets = new LinkedList[N*2];
-            for(int i=0;i<buckets.length;i++){
-                buckets[i] = new LinkedList<>();
+            growBuckets = newTable(N*2);
+            rehashIndex = 0;
+            if(bloom != null){
+                growBloom = new BlockedBloomFilter(N*2*2, bloomBitsPerKey); //the new table rehashes again at 2 nodes per bucket
+            }
+            if(metrics != null){
+                metrics.rehashStarted(N, N*2);
+            }
+            rehashStep();
+        }
+
+        //Redis-style incremental migration: moves up to rehashSteps non-empty buckets,
+        //and visits at most 10 empty buckets per step so a sparse table cannot stall us
+        private void rehashStep(){
+            if(rehashIndex == -1){
+                return;
+            }
+            long start = metrics != null ? System.nanoTime() : 0;
+            int moved = 0;
+            int emptyVisits = rehashSteps == Integer.MAX_VALUE ? Integer.MAX_VALUE : rehashSteps * 10;
+            while(moved < rehashSteps && rehashIndex < buckets.length){
+                Bucket<Node> ll = buckets[rehashIndex];
+                if(ll instanceof TreeBin && ll.size() > TREEIFY_THRESHOLD){
+                    //a flooded bucket moves over in chain-sized slices, so a step stays O(log n);
+                    //lookups search both tables meanwhile, so the nodes left behind are still found
+                    TreeBin bin = (TreeBin) ll;
+                    for(int i = 0; i < TREEIFY_THRESHOLD; i++){
+                        migrate(bin.poll());
+                    }
+                    moved++;
+                    continue;
+                }
+                buckets[rehashIndex++] = null;
+                if(ll == null){
+                    if(--emptyVisits == 0){
+                        break;
+                    }
+                    continue;
+                }
+                for(Node node : ll){
+                    migrate(node);
+                }
+                moved++;
             }
-            for(LinkedList<Node> ll : oldBucket){
-                for(int j=0;j<ll.size();j++){
-                    Node node = ll.get(j);
-                    put(node.key, node.value);
+            if(metrics != null){
+                metrics.rehashWork(System.nanoTime() - start);
+            }
+            if(rehashIndex == buckets.length){//migration done, the new table takes over
+                buckets = growBuckets;
+                N = buckets.length;
+                growBuckets = null;
+                rehashIndex = -1;
+                if(growBloom != null){//rebuilt from the live nodes only, so removed keys are forgotten
+                    bloom = growBloom;
+                    growBloom = null;
+                }
+                if(metrics != null){
+                    metrics.rehashFinished(n);
                 }
             }
-        }  
+        }
 
-        public void put(K key, V value){
-            int bi = hashfunction(key);
-            int di = searchInLL(key, bi);
-            if(di == -1){//doesnt exist
-                buckets[bi].add(new Node(key, value));
-                n++;
+        private void migrate(Node node){
+            addToBucket(growBuckets, node);
+            if(growBloom != null){
+                growBloom.add(node.hash);
             }
-            else{//exists
-                Node node = buckets[bi].get(di);
+        }
+
+        //writes no field unless metrics are on, so a map that is not rehashing can be read concurrently
+        private Node findNode(K key, int h){
+            if(metrics != null){
+                comparisons = 0;
+            }
+            Node node = searchInLL(key, h, buckets[indexFor(h, N)]);
+            if(node == null && growBuckets != null){
+                node = searchInLL(key, h, growBuckets[indexFor(h, growBuckets.length)]);
+            }
+            if(metrics != null){
+                metrics.lookup(comparisons, h);
+            }
+            return node;
+        }
+
+        public void put(K key, V value){
+            rehashStep();
+            int h = hashfunction(key);
+            Node node = findNode(key, h);
+            if(node != null){//exists
                 node.value = value;
+                return;
             }
+            //doesnt exist: while rehashing new nodes only go to the new table
+            addToBucket(growBuckets != null ? growBuckets : buckets, new Node(h, key, value));
+            if(bloom != null){
+                bloom.add(h);
+                if(growBloom != null){
+                    growBloom.add(h);
+                }
+            }
+            n++;
             double lambda = (double)n/N;
-            if(lambda > 2.0){
+            if(lambda > 2.0 && !isRehashing()){
                 rehash();
             }
         }
 
         public V get(K key){
-            int bi = hashfunction(key);
-            int di = searchInLL(key, bi);
-            if(di == -1){//key not found
+            rehashStep();
+            int h = hashfunction(key);
+            if(bloom != null && !bloom.mightContain(h)){//definitely absent, skip the chain walk
                 return null;
             }
-            else{//exists
-                Node node = buckets[bi].get(di);
-                return node.value;
-            }
+            Node node = findNode(key, h);
+            return node == null ? null : node.value;
         }
 
         public boolean containsKey(K key){
-            int bi = hashfunction(key);
-            int di = searchInLL(key, bi);
-            return di != -1;
+            rehashStep();
+            int h = hashfunction(key);
+            if(bloom != null && !bloom.mightContain(h)){
+                return false;
+            }
+            return findNode(key, h) != null;
         }
 
         public V remove(K key){
-            int bi = hashfunction(key);
-            int di = searchInLL(key, bi);
-            if(di == -1){//key not found
+            rehashStep();
+            int h = hashfunction(key);
+            Bucket<Node> table[] = buckets;
+            comparisons = 0;
+            Node node = searchInLL(key, h, buckets[indexFor(h, N)]);
+            if(node == null && growBuckets != null){
+                table = growBuckets;
+                node = searchInLL(key, h, growBuckets[indexFor(h, growBuckets.length)]);
+            }
+            if(metrics != null){
+                metrics.lookup(comparisons, h);
+            }
+            if(node == null){//key not found
                 return null;
             }
             else{//exists
-                Node node = buckets[bi].remove(di);
+                removeFromBucket(table, node);
                 n--;
                 return node.value;
             }
         }
 
+        public int size(){
+            return n;
+        }
+
         public boolean isEmpty(){
             return n == 0;
         }
 
         public ArrayList<K> keySet(){
-            ArrayList<K> keys = new ArrayList<>();
-            for(LinkedList<Node> ll : buckets){
-                for(int j=0;j<ll.size();j++){
-                    Node node = ll.get(j);
+            ArrayList<K> keys = new ArrayList<>(n);
+            addKeys(buckets, keys);
+            if(growBuckets != null){
+                addKeys(growBuckets, keys);
+            }
+            return keys;
+        }
+
+        private void addKeys(Bucket<Node> table[], ArrayList<K> keys){
+            for(Bucket<Node> ll : table){
+                if(ll == null){
+                    continue;
+                }
+                for(Node node : ll){
                     keys.add(node.key);
                 }
             }
-            return keys;
+        }
+
+        //Iteration below never calls rehashStep(), so the tables hold still while we walk them;
+        //the map must not be modified during a scan (setValue on an entry is fine).
+        //Plain chains never exceed TREEIFY_THRESHOLD nodes, so they are walked by index
+        //(chain.get(i) takes at most 4 hops) and only TreeBins need an Iterator object.
+
+        //every entry exactly once, no keySet() copy and no second lookup per key
+        public void forEach(BiConsumer<? super K, ? super V> action){
+            forEachIn(buckets, action);
+            if(growBuckets != null){
+                forEachIn(growBuckets, action);
+            }
+        }
+
+        private void forEachIn(Bucket<Node> table[], BiConsumer<? super K, ? super V> action){
+            for(Bucket<Node> ll : table){
+                if(ll == null){
+                    continue;
+                }
+                if(ll instanceof TreeBin){
+                    for(Node node : ll){
+                        action.accept(node.key, node.value);
+                    }
+                    continue;
+                }
+                Chain chain = (Chain) ll;
+                for(int i = 0, size = chain.size(); i < size; i++){
+                    Node node = chain.get(i);
+                    action.accept(node.key, node.value);
+                }
+            }
+        }
+
+        //copies all entries of m; the table is grown once up front instead of doubling along the way
+        public void putAll(HashMap<? extends K, ? extends V> m){
+            ensureCapacity(n + m.size());
+            m.forEach(this::put);
+        }
+
+        public void putAll(Map<? extends K, ? extends V> m){
+            ensureCapacity(n + m.size());
+            m.forEach(this::put);
+        }
+
+        //makes room for expected nodes without crossing the load factor of 2.0;
+        //finishes a running rehash and moves everything into the final table in one go
+        public void ensureCapacity(int expected){
+            int target = N;
+            while((double)expected / target > 2.0){
+                target <<= 1;
+            }
+            if(target == N && !isRehashing()){
+                return;
+            }
+            target = Math.max(target, growBuckets != null ? growBuckets.length : N);
+            long start = metrics != null ? System.nanoTime() : 0;
+            if(metrics != null && !isRehashing()){
+                metrics.rehashStarted(N, target);
+            }
+            Bucket<Node> table[] = newTable(target);
+            moveAll(buckets, table);
+            if(growBuckets != null){
+                moveAll(growBuckets, table);
+            }
+            buckets = table;
+            N = target;
+            growBuckets = null;
+            rehashIndex = -1;
+            growBloom = null;
+            if(bloom != null){
+                bloom = buildBloom();
+            }
+            if(metrics != null){
+                metrics.rehashWork(System.nanoTime() - start);
+                metrics.rehashFinished(n);
+            }
+        }
+
+        //immutable copy of the current entries behind a minimal perfect hash (see FrozenHashMap)
+        public FrozenHashMap<K, V> freeze(){
+            Object keys[] = new Object[n];
+            Object values[] = new Object[n];
+            Cursor c = cursor();
+            for(int i = 0; c.next(); i++){
+                keys[i] = c.key();
+                values[i] = c.value();
+            }
+            return new FrozenHashMap<>(keys, values);
+        }
+
+        /**
+         * Puts a blocked Bloom filter (see BlockedBloomFilter) in front of get/containsKey, so most
+         * lookups of absent keys skip the bucket walk. About 1.3% false positives at 10 bits per key.
+         * New keys are added on put; removed keys stay in the filter until the next rehash
+         * builds a fresh one from the live nodes.
+         */
+        public void enableBloomFilter(int bitsPerKey){
+            bloomBitsPerKey = bitsPerKey;
+            growBloom = null;
+            bloom = buildBloom();
+        }
+
+        //same, sized for a target false positive rate, e.g. 0.01 (11 bits per key) or 0.001 (17)
+        public void enableBloomFilter(double fpp){
+            enableBloomFilter(BlockedBloomFilter.bitsPerKeyFor(fpp));
+        }
+
+        public void disableBloomFilter(){
+            bloom = null;
+            growBloom = null;
+        }
+
+        //filter over every node, sized for the biggest table until the next rehash
+        private BlockedBloomFilter buildBloom(){
+            int capacity = growBuckets != null ? growBuckets.length : N;
+            BlockedBloomFilter filter = new BlockedBloomFilter(capacity * 2, bloomBitsPerKey);
+            Cursor c = cursor();
+            while(c.next()){
+                filter.add(c.current().hash);
+            }
+            return filter;
+        }
+
+        /**
+         * Turns on the health view (see HashMapMetrics) and returns it; name tags its JFR events.
+         * Counting starts now; until then lookups only pay a null check.
+         */
+        public HashMapMetrics enableMetrics(String name){
+            metrics = new HashMapMetrics(name, this);
+            if(isRehashing()){
+                metrics.rehashStarted(N, growBuckets.length);
+            }
+            return metrics;
+        }
+
+        public void disableMetrics(){
+            metrics = null;
+        }
+
+        //the active view, or null when metrics are off
+        public HashMapMetrics metrics(){
+            return metrics;
+        }
+
+        int bucketCount(){
+            return N;
+        }
+
+        //histogram[i] += number of buckets holding i nodes (last slot: that many or more), over both tables;
+        //returns the number of TreeBins
+        int chainLengths(long histogram[]){
+            int treeBins = chainLengths(buckets, Math.max(rehashIndex, 0), histogram); //migrated buckets are gone
+            if(growBuckets != null){
+                treeBins += chainLengths(growBuckets, 0, histogram);
+            }
+            return treeBins;
+        }
+
+        private int chainLengths(Bucket<Node> table[], int from, long histogram[]){
+            int treeBins = 0;
+            for(int bi = from; bi < table.length; bi++){
+                Bucket<Node> ll = table[bi];
+                int length = ll == null ? 0 : ll.size();
+                histogram[Math.min(length, histogram.length - 1)]++;
+                if(ll instanceof TreeBin){
+                    treeBins++;
+                }
+            }
+            return treeBins;
+        }
+
+        private void moveAll(Bucket<Node> from[], Bucket<Node> to[]){
+            for(Bucket<Node> ll : from){
+                if(ll == null){
+                    continue;
+                }
+                for(Node node : ll){
+                    addToBucket(to, node);
+                }
+            }
+        }
+
+        /**
+         * Reusable forward-only cursor over the entries:
+         *   HashMap<K, V>.Cursor c = map.cursor();
+         *   while(c.next()){ ... c.key() ... c.value() ... }
+         *   c.reset(); //scan again with the same object
+         */
+        public Cursor cursor(){
+            return new Cursor();
+        }
+
+        public class Cursor{
+            private int bucket = -1; //position across buckets[] followed by growBuckets[]
+            private Bucket<Node> ll;
+            private Chain chain; //ll when it is a plain chain, walked by index
+            private int index; //next node of chain
+            private Iterator<Node> treeIt; //only used inside a TreeBin
+            private Node node;
+
+            private Cursor(){
+            }
+
+            public boolean next(){
+                while(true){
+                    if(ll != null){
+                        if(treeIt != null){
+                            if(treeIt.hasNext()){
+                                node = treeIt.next();
+                                return true;
+                            }
+                        }
+                        else if(index < chain.size()){
+                            node = chain.get(index++);
+                            return true;
+                        }
+                        ll = null;
+                        treeIt = null;
+                    }
+                    int total = buckets.length + (growBuckets != null ? growBuckets.length : 0);
+                    if(++bucket >= total){
+                        bucket = total;
+                        node = null;
+                        return false;
+                    }
+                    ll = bucket < buckets.length ? buckets[bucket] : growBuckets[bucket - buckets.length];
+                    if(ll instanceof TreeBin){
+                        treeIt = ll.iterator();
+                    }
+                    else if(ll != null){
+                        chain = (Chain) ll;
+                        index = 0;
+                    }
+                }
+            }
+
+            public K key(){
+                return current().key;
+            }
+
+            public V value(){
+                return current().value;
+            }
+
+            public V setValue(V value){
+                return current().setValue(value);
+            }
+
+            //back to the start, ready for another scan
+            public void reset(){
+                bucket = -1;
+                ll = null;
+                treeIt = null;
+                node = null;
+            }
+
+            private Node current(){
+                if(node == null){
+                    throw new NoSuchElementException("call next() first");
+                }
+                return node;
+            }
+        }
+
+        //splits by bucket ranges; both tables are covered while a rehash is running
+        public Spliterator<Map.Entry<K, V>> spliterator(){
+            return new EntrySpliterator(0, buckets.length + (growBuckets != null ? growBuckets.length : 0), n);
+        }
+
+        //entries as a stream; parallel = true spreads the buckets over the common ForkJoinPool
+        public Stream<Map.Entry<K, V>> stream(boolean parallel){
+            return StreamSupport.stream(spliterator(), parallel);
+        }
+
+        private class EntrySpliterator implements Spliterator<Map.Entry<K, V>>{
+            private int index; //next bucket, counted across buckets[] then growBuckets[]
+            private final int fence;
+            private long estimate;
+            private Iterator<Node> current; //rest of a bucket left by tryAdvance
+
+            EntrySpliterator(int index, int fence, long estimate){
+                this.index = index;
+                this.fence = fence;
+                this.estimate = estimate;
+            }
+
+            private Bucket<Node> bucketAt(int i){
+                return i < buckets.length ? buckets[i] : growBuckets[i - buckets.length];
+            }
+
+            public Spliterator<Map.Entry<K, V>> trySplit(){
+                int mid = (index + fence) >>> 1;
+                if(current != null || mid <= index){
+                    return null;
+                }
+                EntrySpliterator prefix = new EntrySpliterator(index, mid, estimate >>>= 1);
+                index = mid;
+                return prefix;
+            }
+
+            public boolean tryAdvance(Consumer<? super Map.Entry<K, V>> action){
+                while(true){
+                    if(current != null){
+                        if(current.hasNext()){
+                            action.accept(current.next());
+                            return true;
+                        }
+                        current = null;
+                    }
+                    if(index >= fence){
+                        return false;
+                    }
+                    Bucket<Node> ll = bucketAt(index++);
+                    if(ll != null){
+                        current = ll.iterator();
+                    }
+                }
+            }
+
+            public void forEachRemaining(Consumer<? super Map.Entry<K, V>> action){
+                if(current != null){
+                    current.forEachRemaining(action);
+                    current = null;
+                }
+                for(; index < fence; index++){
+                    Bucket<Node> ll = bucketAt(index);
+                    if(ll == null){
+                        continue;
+                    }
+                    if(ll instanceof TreeBin){
+                        for(Node node : ll){
+                            action.accept(node);
+                        }
+                        continue;
+                    }
+                    Chain chain = (Chain) ll;
+                    for(int i = 0, size = chain.size(); i < size; i++){
+                        action.accept(chain.get(i));
+                    }
+                }
+            }
+
+            public long estimateSize(){
+                return estimate;
+            }
+
+            public int characteristics(){
+                return DISTINCT | NONNULL;
+            }
         }
 
     }
@@ -133,5 +958,10 @@ public class function{
 
         map.remove("China");
         System.out.println(map.get("China"));
+
+        //no key copy and no second lookup per entry
+        map.forEach((key, value) -> System.out.println(key + " = " + value));
+        int total = map.stream(true).mapToInt(Map.Entry::getValue).sum();
+        System.out.println("total = " + total);
     }
 }
\ No newline at end of file
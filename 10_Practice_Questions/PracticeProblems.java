@@ -75,17 +75,17 @@ public class PracticeProblems {
     }
     
     /**
-     * BEST APPROACH: Using HashMap
+     * BEST APPROACH: Using a primitive int -> int hash map (no boxing)
      * Time Complexity: O(n)
      * Space Complexity: O(n)
      */
     public int[] twoSumBest(int[] nums, int target) {
-        Map<Integer, Integer> map = new HashMap<>();
+        IntIntMap map = new IntIntMap(nums.length);
         
         for (int i = 0; i < nums.length; i++) {
-            int complement = target - nums[i];
-            if (map.containsKey(complement)) {
-                return new int[]{map.get(complement), i};
+            int seen = map.getOrDefault(target - nums[i], -1);
+            if (seen != -1) {
+                return new int[]{seen, i};
             }
             map.put(nums[i], i);
         }
@@ -93,6 +93,76 @@ public class PracticeProblems {
         return new int[]{-1, -1};
     }
     
+    // Fixed-size open-addressing int -> int map for twoSumBest: linear probing, Fibonacci
+    // hashing and no boxing; the full version with growth lives in 01_Arrays_and_Strings/IntIntMap.java
+    static class IntIntMap {
+        private static final int EMPTY = 0;
+        private static final int MAX_CAPACITY = 1 << 29; // slots[] holds two ints per slot
+
+        private final int[] slots; // [key0, value0, key1, value1, ...]
+        private final int mask;
+        private final int shift;
+        private final int maxSize; // keeps the load factor at or below 0.5, so probes always end
+        private int size;
+        private boolean hasZeroKey;
+        private int zeroValue;
+
+        IntIntMap(int expectedSize) {
+            if (expectedSize > MAX_CAPACITY / 2) {
+                throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+            }
+            int capacity = 16;
+            while (capacity / 2 < expectedSize) {
+                capacity <<= 1;
+            }
+            slots = new int[capacity * 2];
+            mask = capacity - 1;
+            shift = 32 - Integer.numberOfTrailingZeros(capacity);
+            maxSize = capacity / 2;
+        }
+
+        private int slotOf(int key) {
+            return (key * 0x9E3779B9) >>> shift;
+        }
+
+        void put(int key, int value) {
+            if (key == EMPTY) {
+                hasZeroKey = true;
+                zeroValue = value;
+                return;
+            }
+            int i = slotOf(key);
+            while (slots[i * 2] != EMPTY && slots[i * 2] != key) {
+                i = (i + 1) & mask;
+            }
+            if (slots[i * 2] == EMPTY) {
+                if (size == maxSize) {
+                    throw new IllegalStateException("IntIntMap is full: " + size + " keys");
+                }
+                slots[i * 2] = key;
+                size++;
+            }
+            slots[i * 2 + 1] = value;
+        }
+
+        int getOrDefault(int key, int missing) {
+            if (key == EMPTY) {
+                return hasZeroKey ? zeroValue : missing;
+            }
+            int i = slotOf(key);
+            while (true) {
+                int k = slots[i * 2];
+                if (k == key) {
+                    return slots[i * 2 + 1];
+                }
+                if (k == EMPTY) {
+                    return missing;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+    }
+    
     // ==================== MAXIMUM SUBARRAY (KADANE'S ALGORITHM) ====================
     
     /**